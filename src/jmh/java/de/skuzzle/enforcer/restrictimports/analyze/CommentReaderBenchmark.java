@@ -0,0 +1,97 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the throughput of the character and the byte based comment stripping by
+ * reading a whole java source file through each of them.
+ *
+ * @author Simon Taddiken
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentReaderBenchmark {
+
+    @Param({ "100", "5000" })
+    private int lines;
+
+    private String source;
+    private byte[] sourceBytes;
+    private final char[] readBuffer = new char[8192];
+
+    @Setup
+    public void setUp() {
+        final StringBuilder b = new StringBuilder();
+        b.append("/*\n");
+        for (int i = 0; i < 20; ++i) {
+            b.append(" * Licensed under the terms of some license, line ").append(i).append("\n");
+        }
+        b.append(" */\n");
+        b.append("package de.skuzzle.enforcer.restrictimports.sample;\n\n");
+        for (int i = 0; i < 30; ++i) {
+            b.append("import de.skuzzle.enforcer.restrictimports.sample.Class").append(i).append(";\n");
+        }
+        b.append("\npublic class Sample {\n");
+        for (int i = 0; i < lines; ++i) {
+            if (i % 10 == 0) {
+                b.append("    /**\n     * Javadoc of method").append(i).append("\n     */\n");
+            }
+            b.append("    private String field").append(i).append(" = \"value\"; // comment\n");
+        }
+        b.append("}\n");
+        this.source = b.toString();
+        this.sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long skipCommentsReader() throws IOException {
+        return readFully(new SkipCommentsReader(new StringReader(source)));
+    }
+
+    @Benchmark
+    public long byteLineScanner() throws IOException {
+        final ReadableByteChannel channel = Channels.newChannel(
+                new ByteArrayInputStream(sourceBytes));
+        try (ByteLineScanner scanner = new ByteLineScanner(channel, StandardCharsets.UTF_8)) {
+            long total = 0;
+            while (scanner.hasNext()) {
+                total += scanner.next().length();
+            }
+            return total;
+        }
+    }
+
+    private long readFully(Reader reader) throws IOException {
+        try (Reader r = reader) {
+            long total = 0;
+            int read;
+            while ((read = r.read(readBuffer, 0, readBuffer.length)) != -1) {
+                total += read;
+            }
+            return total;
+        }
+    }
+}
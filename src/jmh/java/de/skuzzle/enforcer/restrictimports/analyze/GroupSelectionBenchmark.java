@@ -0,0 +1,88 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the selection of the most specific group for a class, with and without the
+ * {@link GroupSelectionCache}. Each group restricts a dedicated module package, so the
+ * number of base packages to consider grows with the number of groups.
+ *
+ * @author Simon Taddiken
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupSelectionBenchmark {
+
+    private static final int CLASSES = 64;
+
+    @Param({ "1", "10", "100" })
+    private int groupCount;
+
+    private BannedImportGroups groups;
+    private GroupSelectionCache groupSelectionCache;
+    private String[] packageNames;
+    private QualifiedName[] classNames;
+
+    @Setup
+    public void setUp() {
+        final BannedImportGroups.Builder builder = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("sun.**"));
+        for (int i = 0; i < groupCount; ++i) {
+            builder.withGroup(BannedImportGroup.builder()
+                    .withBasePackages("de.skuzzle.module" + i + ".**")
+                    .withBannedImports("de.skuzzle.module" + (i + 1) + ".internal.**"));
+        }
+        this.groups = builder.build();
+        this.groupSelectionCache = new GroupSelectionCache(groups);
+
+        this.packageNames = new String[CLASSES];
+        this.classNames = new QualifiedName[CLASSES];
+        for (int i = 0; i < CLASSES; ++i) {
+            // Half of the classes do not belong to any module and select the default group
+            packageNames[i] = i % 2 == 0
+                    ? "de.skuzzle.module" + (i % (groupCount + 1)) + ".sub" + i
+                    : "com.example.sub" + i;
+            classNames[i] = QualifiedName.parse(packageNames[i] + ".Class" + i);
+        }
+    }
+
+    @Benchmark
+    public int selectGroup() {
+        int selected = 0;
+        for (final QualifiedName className : classNames) {
+            if (groups.selectGroupFor(className).isPresent()) {
+                ++selected;
+            }
+        }
+        return selected;
+    }
+
+    @Benchmark
+    public int selectGroupCached() {
+        int selected = 0;
+        for (int i = 0; i < CLASSES; ++i) {
+            if (groupSelectionCache.selectGroupFor(packageNames[i], classNames[i]).isPresent()) {
+                ++selected;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,71 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching a single source file's imports against banned imports. Lines are
+ * supplied from memory, so only parsing the header and matching is measured and not
+ * reading the file.
+ *
+ * @author Simon Taddiken
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImportMatcherBenchmark {
+
+    @Param({ "10", "100" })
+    private int imports;
+
+    private final Path sourceFile = Paths.get("Sample.java");
+    private BannedImportGroups groups;
+    private ImportMatcher importMatcher;
+
+    @Setup
+    public void setUp() {
+        final List<String> lines = new ArrayList<>();
+        lines.add("package de.skuzzle.enforcer.restrictimports.sample;");
+        lines.add("");
+        for (int i = 0; i < imports; ++i) {
+            lines.add(i % 5 == 0
+                    ? "import java.util.Class" + i + ";"
+                    : "import de.skuzzle.enforcer.restrictimports.sample.Class" + i + ";");
+        }
+        lines.add("");
+        lines.add("public class Sample {");
+
+        this.groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.**")
+                        .withBannedImports("java.util.**", "sun.**")
+                        .withAllowedImports("java.util.Class10"))
+                .build();
+        this.importMatcher = new ImportMatcherImpl(path -> lines.stream(),
+                new GroupSelectionCache(groups));
+    }
+
+    @Benchmark
+    public Optional<MatchedFile> matchFile() {
+        return importMatcher.matchFile(sourceFile, groups);
+    }
+}
@@ -0,0 +1,60 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching of qualified names against the different kinds of package patterns.
+ * Every invocation matches the same mix of matching and non matching names.
+ *
+ * @author Simon Taddiken
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackagePatternBenchmark {
+
+    @Param({ "java.util.ArrayList", "java.util.*", "java.**", "de.*.impl.**", "static java.**" })
+    private String pattern;
+
+    private PackagePattern packagePattern;
+    private QualifiedName[] names;
+
+    @Setup
+    public void setUp() {
+        this.packagePattern = PackagePattern.parse(pattern);
+        this.names = new QualifiedName[] {
+                QualifiedName.parse("java.util.ArrayList"),
+                QualifiedName.parse("java.util.concurrent.ConcurrentHashMap"),
+                QualifiedName.parse("de.skuzzle.impl.sample.Sample"),
+                QualifiedName.parse("de.skuzzle.enforcer.restrictimports.analyze.PackagePattern"),
+                QualifiedName.parse("static java.util.Arrays.asList"),
+                QualifiedName.parse("com.google.common.collect.ImmutableList"),
+        };
+    }
+
+    @Benchmark
+    public int matches() {
+        int matches = 0;
+        for (final QualifiedName name : names) {
+            if (packagePattern.matches(name)) {
+                ++matches;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,81 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+/**
+ * Measures a full analysis of a {@link SourceTreeGenerator generated} source tree on the
+ * default file system, including walking the tree and reading the files. Results are
+ * dominated by the file system cache after the first iteration.
+ *
+ * @author Simon Taddiken
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SourceTreeAnalyzerBenchmark {
+
+    @Param({ "2000" })
+    private int files;
+
+    @Param({ "1", "4" })
+    private int parallelism;
+
+    @Param({ "stream", "mapped", "pooled-buffer" })
+    private String readStrategy;
+
+    private Path root;
+    private AnalyzerSettings settings;
+    private BannedImportGroups groups;
+    private final SourceTreeAnalyzer analyzer = SourceTreeAnalyzer.getInstance();
+
+    @Setup
+    public void setUp() throws IOException {
+        this.root = Files.createTempDirectory("restrict-imports-benchmark");
+        new SourceTreeGenerator()
+                .withFiles(files)
+                .generate(root);
+
+        this.settings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withParallelism(parallelism)
+                .withReadStrategy(ReadStrategy.fromString(readStrategy))
+                .build();
+        this.groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages(SourceTreeGenerator.BASE_PACKAGE + ".**")
+                        .withBannedImports(SourceTreeGenerator.BANNED_IMPORT, "sun.**"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        MoreFiles.deleteRecursively(root, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Benchmark
+    public AnalyzeResult analyze() {
+        return analyzer.analyze(settings, groups);
+    }
+}
@@ -3,17 +3,23 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
 
 public final class AnalyzeResult {
 
     private final List<MatchedFile> fileMatches;
+    private final Map<BannedImportGroup, Integer> omittedViolations;
 
-    private AnalyzeResult(List<MatchedFile> matches) {
+    private AnalyzeResult(List<MatchedFile> matches,
+            Map<BannedImportGroup, Integer> omittedViolations) {
         this.fileMatches = matches;
+        this.omittedViolations = omittedViolations;
     }
 
     public static Builder builder() {
@@ -21,7 +27,9 @@ public final class AnalyzeResult {
     }
 
     /**
-     * Contains all the matches that were found within the analyzed java source files.
+     * Contains the matches that were found within the analyzed java source files. If the
+     * number of reported violations has been limited, this list might not contain all
+     * matches (see {@link #isTruncated()}).
      *
      * @return The list of found banned imports.
      */
@@ -36,29 +44,73 @@ public final class AnalyzeResult {
      * @return Whether a banned import has been found.
      */
     public boolean bannedImportsFound() {
-        return !fileMatches.isEmpty();
+        return !fileMatches.isEmpty() || !omittedViolations.isEmpty();
+    }
+
+    /**
+     * Whether some banned imports have been found but are not contained in
+     * {@link #getFileMatches()} because the number of reported violations has been
+     * limited.
+     *
+     * @return Whether not all found banned imports are reported.
+     * @since 0.15.0
+     */
+    public boolean isTruncated() {
+        return !omittedViolations.isEmpty();
+    }
+
+    /**
+     * The total number of banned imports that have been found, including those that are
+     * not reported.
+     *
+     * @return The total number of banned imports.
+     * @since 0.15.0
+     */
+    public int getViolationCount() {
+        return getViolationCountByGroup().values().stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    /**
+     * The total number of banned imports that have been found per group, including
+     * those that are not reported. Groups of reported matches come first in the order of
+     * {@link #getFileMatches()}.
+     *
+     * @return The number of banned imports per group.
+     * @since 0.15.0
+     */
+    public Map<BannedImportGroup, Integer> getViolationCountByGroup() {
+        final Map<BannedImportGroup, Integer> result = new LinkedHashMap<>();
+        fileMatches.forEach(fileMatch -> result.merge(fileMatch.getMatchedBy(),
+                fileMatch.getMatchedImports().size(), Integer::sum));
+        omittedViolations.forEach((group, count) -> result.merge(group, count, Integer::sum));
+        return result;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fileMatches);
+        return Objects.hash(fileMatches, omittedViolations);
     }
 
     @Override
     public boolean equals(Object obj) {
         return obj == this || obj instanceof AnalyzeResult
-                && Objects.equals(fileMatches, ((AnalyzeResult) obj).fileMatches);
+                && Objects.equals(fileMatches, ((AnalyzeResult) obj).fileMatches)
+                && Objects.equals(omittedViolations, ((AnalyzeResult) obj).omittedViolations);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("fileMatches", this.fileMatches)
+                .add("omittedViolations", this.omittedViolations)
                 .toString();
     }
 
     public static class Builder {
         private final List<MatchedFile> matches = new ArrayList<>();
+        private final Map<BannedImportGroup, Integer> omittedViolations = new LinkedHashMap<>();
 
         private Builder() {
             // hidden
@@ -75,8 +127,24 @@ public final class AnalyzeResult {
             return this;
         }
 
+        /**
+         * Records banned imports which have been found but which are not reported.
+         *
+         * @param group The group that contained the banned imports.
+         * @param count The number of banned imports.
+         * @return This builder.
+         * @since 0.15.0
+         */
+        public Builder withOmittedViolations(BannedImportGroup group, int count) {
+            Preconditions.checkArgument(count >= 0, "count must not be negative");
+            if (count > 0) {
+                this.omittedViolations.merge(group, count, Integer::sum);
+            }
+            return this;
+        }
+
         public AnalyzeResult build() {
-            return new AnalyzeResult(matches);
+            return new AnalyzeResult(matches, omittedViolations);
         }
     }
 }
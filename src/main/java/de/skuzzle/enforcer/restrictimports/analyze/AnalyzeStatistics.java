@@ -0,0 +1,116 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Thread safe accumulation of counters and timings of the different phases of an
+ * analysis: walking the source tree, reading the file headers and matching their imports.
+ * The number of bytes read is tracked separately by {@link ReadStatistics}.
+ * <p>
+ * Timings are summed up over all threads. During parallel analysis they thus exceed the
+ * elapsed wall clock time but still tell the relative cost of each phase.
+ *
+ * @author Simon Taddiken
+ */
+final class AnalyzeStatistics {
+
+    private final LongAdder filesWalked = new LongAdder();
+    private final LongAdder walkNanos = new LongAdder();
+    private final LongAdder headersRead = new LongAdder();
+    private final LongAdder readNanos = new LongAdder();
+    private final LongAdder linesScanned = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+    private final LongAdder importsChecked = new LongAdder();
+    private final LongAdder importsMatched = new LongAdder();
+    private final LongAdder groupLookups = new LongAdder();
+
+    /**
+     * Records the time spent in listing a directory or a whole tree.
+     *
+     * @param files The number of source files found.
+     * @param nanos The time spent in listing, excluding the time spent in analyzing the
+     *            found files.
+     */
+    void recordWalk(int files, long nanos) {
+        this.filesWalked.add(files);
+        this.walkNanos.add(nanos);
+    }
+
+    void recordRead(long nanos) {
+        this.headersRead.increment();
+        this.readNanos.add(nanos);
+    }
+
+    void recordLinesScanned(int lines) {
+        this.linesScanned.add(lines);
+    }
+
+    void recordMatch(long nanos) {
+        this.matchNanos.add(nanos);
+    }
+
+    void recordImportChecked(boolean matched) {
+        this.importsChecked.increment();
+        if (matched) {
+            this.importsMatched.increment();
+        }
+    }
+
+    void recordGroupLookup() {
+        this.groupLookups.increment();
+    }
+
+    long getFilesWalked() {
+        return this.filesWalked.sum();
+    }
+
+    long getWalkMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.walkNanos.sum());
+    }
+
+    long getHeadersRead() {
+        return this.headersRead.sum();
+    }
+
+    long getReadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.readNanos.sum());
+    }
+
+    long getLinesScanned() {
+        return this.linesScanned.sum();
+    }
+
+    long getMatchMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.matchNanos.sum());
+    }
+
+    long getImportsChecked() {
+        return this.importsChecked.sum();
+    }
+
+    long getImportsMatched() {
+        return this.importsMatched.sum();
+    }
+
+    long getGroupLookups() {
+        return this.groupLookups.sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("filesWalked", getFilesWalked())
+                .add("walkMillis", getWalkMillis())
+                .add("headersRead", getHeadersRead())
+                .add("readMillis", getReadMillis())
+                .add("linesScanned", getLinesScanned())
+                .add("matchMillis", getMatchMillis())
+                .add("importsChecked", getImportsChecked())
+                .add("importsMatched", getImportsMatched())
+                .add("groupLookups", getGroupLookups())
+                .toString();
+    }
+}
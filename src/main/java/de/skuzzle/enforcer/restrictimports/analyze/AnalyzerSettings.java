@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import com.google.common.base.MoreObjects;
 
@@ -19,14 +20,38 @@ public final class AnalyzerSettings {
 
     private final Charset sourceFileCharset;
     private final Collection<Path> rootDirectories;
-    private final int commentLineBufferSize;
+    private final int parallelism;
+    private final ReadStrategy readStrategy;
+    private final long mappingThreshold;
+    private final Path cacheDirectory;
+    private final boolean failFast;
+    private final int maxReportedViolations;
+    private final List<String> sourceIncludes;
+    private final List<String> sourceExcludes;
+    private final boolean packagePruning;
 
     private AnalyzerSettings(Charset sourceFileCharset,
             Collection<Path> rootDirectories,
-            int commentLineBufferSize) {
+            int parallelism,
+            ReadStrategy readStrategy,
+            long mappingThreshold,
+            Path cacheDirectory,
+            boolean failFast,
+            int maxReportedViolations,
+            List<String> sourceIncludes,
+            List<String> sourceExcludes,
+            boolean packagePruning) {
         this.sourceFileCharset = sourceFileCharset;
         this.rootDirectories = rootDirectories;
-        this.commentLineBufferSize = commentLineBufferSize;
+        this.parallelism = parallelism;
+        this.readStrategy = readStrategy;
+        this.mappingThreshold = mappingThreshold;
+        this.cacheDirectory = cacheDirectory;
+        this.failFast = failFast;
+        this.maxReportedViolations = maxReportedViolations;
+        this.sourceIncludes = sourceIncludes;
+        this.sourceExcludes = sourceExcludes;
+        this.packagePruning = packagePruning;
     }
 
     public static Builder builder() {
@@ -41,13 +66,111 @@ public final class AnalyzerSettings {
         return this.rootDirectories;
     }
 
-    public int getCommentLineBufferSize() {
-        return this.commentLineBufferSize;
+    /**
+     * The number of worker threads that are used to analyze source files. A value of 1
+     * means that all files are analyzed sequentially on the calling thread.
+     *
+     * @return The number of worker threads.
+     * @since 0.15.0
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * The strategy for reading the contents of source files.
+     *
+     * @return The read strategy.
+     * @since 0.15.0
+     */
+    public ReadStrategy getReadStrategy() {
+        return this.readStrategy;
+    }
+
+    /**
+     * The minimum size in bytes of a file to be memory mapped when using
+     * {@link ReadStrategy#MAPPED}. Smaller files are read using plain reads.
+     *
+     * @return The threshold in bytes.
+     * @since 0.15.0
+     */
+    public long getMappingThreshold() {
+        return this.mappingThreshold;
+    }
+
+    /**
+     * The directory in which the package and import statements of analyzed source files
+     * are cached between multiple runs. If empty, every source file is read on each run.
+     *
+     * @return The cache directory.
+     * @since 0.15.0
+     */
+    public Optional<Path> getCacheDirectory() {
+        return Optional.ofNullable(this.cacheDirectory);
+    }
+
+    /**
+     * Whether the analysis stops as soon as the first file containing a banned import has
+     * been found. In that case the result contains at most a single matched file.
+     *
+     * @return Whether to stop at the first match.
+     * @since 0.15.0
+     */
+    public boolean isFailFast() {
+        return this.failFast;
+    }
+
+    /**
+     * The maximum number of banned imports that are contained in the
+     * {@link AnalyzeResult}. Further banned imports are only counted.
+     *
+     * @return The maximum number of reported banned imports.
+     * @since 0.15.0
+     */
+    public int getMaxReportedViolations() {
+        return this.maxReportedViolations;
+    }
+
+    /**
+     * Glob patterns, relative to a root directory, of the source files to analyze. If
+     * empty, all java source files are analyzed.
+     *
+     * @return The include patterns.
+     * @since 0.15.0
+     */
+    public List<String> getSourceIncludes() {
+        return this.sourceIncludes;
+    }
+
+    /**
+     * Glob patterns, relative to a root directory, of the source files to skip. Directories
+     * matched by a pattern ending with <code>&#47;**</code> are not walked at all.
+     *
+     * @return The exclude patterns.
+     * @since 0.15.0
+     */
+    public List<String> getSourceExcludes() {
+        return this.sourceExcludes;
+    }
+
+    /**
+     * Whether directories are skipped if their path, interpreted as package name, shows
+     * that none of their classes is subject to a {@link BannedImportGroup}. If a source
+     * file turns out to be declared in a different package than its directory suggests,
+     * the skipped directories of its root are analyzed anyway.
+     *
+     * @return Whether to skip irrelevant package directories.
+     * @since 0.15.0
+     */
+    public boolean isPackagePruning() {
+        return this.packagePruning;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sourceFileCharset, rootDirectories, commentLineBufferSize);
+        return Objects.hash(sourceFileCharset, rootDirectories, parallelism, readStrategy,
+                mappingThreshold, cacheDirectory, failFast, maxReportedViolations, sourceIncludes,
+                sourceExcludes, packagePruning);
     }
 
     @Override
@@ -55,14 +178,30 @@ public final class AnalyzerSettings {
         return obj == this || obj instanceof AnalyzerSettings
                 && Objects.equals(sourceFileCharset, ((AnalyzerSettings) obj).sourceFileCharset)
                 && Objects.equals(rootDirectories, ((AnalyzerSettings) obj).rootDirectories)
-                && Objects.equals(commentLineBufferSize, ((AnalyzerSettings) obj).commentLineBufferSize);
+                && Objects.equals(parallelism, ((AnalyzerSettings) obj).parallelism)
+                && Objects.equals(readStrategy, ((AnalyzerSettings) obj).readStrategy)
+                && Objects.equals(mappingThreshold, ((AnalyzerSettings) obj).mappingThreshold)
+                && Objects.equals(cacheDirectory, ((AnalyzerSettings) obj).cacheDirectory)
+                && failFast == ((AnalyzerSettings) obj).failFast
+                && maxReportedViolations == ((AnalyzerSettings) obj).maxReportedViolations
+                && Objects.equals(sourceIncludes, ((AnalyzerSettings) obj).sourceIncludes)
+                && Objects.equals(sourceExcludes, ((AnalyzerSettings) obj).sourceExcludes)
+                && packagePruning == ((AnalyzerSettings) obj).packagePruning;
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("sourceFileCharset", sourceFileCharset)
-                .add("commentLineBufferSize", commentLineBufferSize)
+                .add("parallelism", parallelism)
+                .add("readStrategy", readStrategy)
+                .add("mappingThreshold", mappingThreshold)
+                .add("cacheDirectory", cacheDirectory)
+                .add("failFast", failFast)
+                .add("maxReportedViolations", maxReportedViolations)
+                .add("sourceIncludes", sourceIncludes)
+                .add("sourceExcludes", sourceExcludes)
+                .add("packagePruning", packagePruning)
                 .add("rootDirectories", rootDirectories)
                 .toString();
     }
@@ -71,7 +210,15 @@ public final class AnalyzerSettings {
 
         private final List<Path> rootDirectories = new ArrayList<>();
         private Charset sourceFileCharset = Charset.defaultCharset();
-        private int commentLineBufferSize = 128;
+        private int parallelism = 1;
+        private ReadStrategy readStrategy = ReadStrategy.STREAM;
+        private long mappingThreshold = 64 * 1024;
+        private Path cacheDirectory;
+        private boolean failFast;
+        private int maxReportedViolations = Integer.MAX_VALUE;
+        private final List<String> sourceIncludes = new ArrayList<>();
+        private final List<String> sourceExcludes = new ArrayList<>();
+        private boolean packagePruning;
 
         private Builder() {
             // hidden
@@ -92,14 +239,55 @@ public final class AnalyzerSettings {
             return this;
         }
 
-        public Builder withCommentLineBufferSize(int commentLineBufferSize) {
-            this.commentLineBufferSize = commentLineBufferSize;
+        public Builder withParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder withReadStrategy(ReadStrategy readStrategy) {
+            this.readStrategy = readStrategy;
+            return this;
+        }
+
+        public Builder withMappingThreshold(long mappingThreshold) {
+            this.mappingThreshold = mappingThreshold;
+            return this;
+        }
+
+        public Builder withCacheDirectory(Path cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+            return this;
+        }
+
+        public Builder withFailFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+
+        public Builder withMaxReportedViolations(int maxReportedViolations) {
+            this.maxReportedViolations = maxReportedViolations;
+            return this;
+        }
+
+        public Builder withSourceIncludes(Collection<String> sourceIncludes) {
+            this.sourceIncludes.addAll(sourceIncludes);
+            return this;
+        }
+
+        public Builder withSourceExcludes(Collection<String> sourceExcludes) {
+            this.sourceExcludes.addAll(sourceExcludes);
+            return this;
+        }
+
+        public Builder withPackagePruning(boolean packagePruning) {
+            this.packagePruning = packagePruning;
             return this;
         }
 
         public AnalyzerSettings build() {
-            return new AnalyzerSettings(sourceFileCharset, rootDirectories,
-                    commentLineBufferSize);
+            return new AnalyzerSettings(sourceFileCharset, rootDirectories, parallelism,
+                    readStrategy, mappingThreshold, cacheDirectory, failFast,
+                    maxReportedViolations, sourceIncludes, sourceExcludes, packagePruning);
         }
     }
 }
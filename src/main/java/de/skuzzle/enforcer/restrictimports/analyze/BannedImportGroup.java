@@ -23,6 +23,11 @@ public final class BannedImportGroup {
     private final List<PackagePattern> excludedClasses;
     private final String reason;
 
+    // compiled versions of the above patterns which are derived from the configuration
+    // and thus not part of equals and hashCode
+    private final PackagePatternTrie bannedImportsTrie;
+    private final PackagePatternTrie allowedImportsTrie;
+
     private BannedImportGroup(List<PackagePattern> basePackages,
             List<PackagePattern> bannedImports,
             List<PackagePattern> allowedImports,
@@ -33,6 +38,8 @@ public final class BannedImportGroup {
         this.allowedImports = allowedImports;
         this.excludedClasses = excludedClasses;
         this.reason = reason;
+        this.bannedImportsTrie = PackagePatternTrie.of(bannedImports);
+        this.allowedImportsTrie = PackagePatternTrie.of(allowedImports);
     }
 
     public static Builder builder() {
@@ -44,6 +51,17 @@ public final class BannedImportGroup {
     }
 
     public boolean basePackageMatches(String fqcn) {
+        return basePackageMatches(QualifiedName.parse(fqcn));
+    }
+
+    /**
+     * Tests whether any of this group's base packages matches the given class name.
+     *
+     * @param fqcn The full qualified class name.
+     * @return Whether a base package matches.
+     * @since 0.15.0
+     */
+    public boolean basePackageMatches(QualifiedName fqcn) {
         return matchesAnyPattern(fqcn, basePackages);
     }
 
@@ -51,11 +69,30 @@ public final class BannedImportGroup {
         return this.bannedImports;
     }
 
+    /**
+     * Tests whether the given import is banned by this group. If the import is matched by
+     * multiple banned import patterns, the most specific pattern is returned.
+     *
+     * @param importName The import to test.
+     * @return The most specific banned import pattern that matches the import or an empty
+     *         optional if the import is not banned or explicitly allowed.
+     */
     public Optional<PackagePattern> ifImportIsBanned(String importName) {
-        return bannedImports.stream()
-                .filter(bannedImport -> bannedImport.matches(importName))
-                .filter(result -> !allowedImportMatches(importName))
-                .findFirst();
+        return ifImportIsBanned(QualifiedName.parse(importName));
+    }
+
+    /**
+     * Tests whether the given import is banned by this group. If the import is matched by
+     * multiple banned import patterns, the most specific pattern is returned.
+     *
+     * @param importName The import to test.
+     * @return The most specific banned import pattern that matches the import or an empty
+     *         optional if the import is not banned or explicitly allowed.
+     * @since 0.15.0
+     */
+    public Optional<PackagePattern> ifImportIsBanned(QualifiedName importName) {
+        return bannedImportsTrie.mostSpecificMatch(importName)
+                .filter(result -> !allowedImportMatches(importName));
     }
 
     public List<PackagePattern> getAllowedImports() {
@@ -63,7 +100,18 @@ public final class BannedImportGroup {
     }
 
     public boolean allowedImportMatches(String importName) {
-        return matchesAnyPattern(importName, allowedImports);
+        return allowedImportMatches(QualifiedName.parse(importName));
+    }
+
+    /**
+     * Tests whether the given import is explicitly allowed by this group.
+     *
+     * @param importName The import to test.
+     * @return Whether an allowed import pattern matches.
+     * @since 0.15.0
+     */
+    public boolean allowedImportMatches(QualifiedName importName) {
+        return allowedImportsTrie.anyMatches(importName);
     }
 
     public List<PackagePattern> getExcludedClasses() {
@@ -71,10 +119,21 @@ public final class BannedImportGroup {
     }
 
     public boolean exclusionMatches(String fqcn) {
+        return exclusionMatches(QualifiedName.parse(fqcn));
+    }
+
+    /**
+     * Tests whether the given class name is excluded from this group.
+     *
+     * @param fqcn The full qualified class name.
+     * @return Whether an exclusion pattern matches.
+     * @since 0.15.0
+     */
+    public boolean exclusionMatches(QualifiedName fqcn) {
         return matchesAnyPattern(fqcn, excludedClasses);
     }
 
-    private boolean matchesAnyPattern(String packageName,
+    private boolean matchesAnyPattern(QualifiedName packageName,
             Collection<PackagePattern> patterns) {
         return patterns.stream()
                 .anyMatch(pattern -> pattern.matches(packageName));
@@ -1,6 +1,8 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -18,14 +20,68 @@ public final class BannedImportGroups {
 
     private final List<BannedImportGroup> groups;
 
+    // Index over the base packages of all groups which is derived from the groups and
+    // thus not part of equals and hashCode. Base packages are indexed in the order of
+    // their groups, so that the base packages of each group form a contiguous range.
+    // The lower the rank of a base package, the more specific it is
+    private final PackagePatternTrie basePackageIndex;
+    private final int[] groupIndices;
+    private final int[] specificityRanks;
+    private final boolean selectionClassNameIndependent;
+
     private BannedImportGroups(List<BannedImportGroup> groups) {
         this.groups = groups;
+
+        final List<PackagePattern> allBasePackages = new ArrayList<>();
+        final List<Integer> allGroupIndices = new ArrayList<>();
+        for (int groupIndex = 0; groupIndex < groups.size(); ++groupIndex) {
+            for (final PackagePattern basePackage : groups.get(groupIndex).getBasePackages()) {
+                allBasePackages.add(basePackage);
+                allGroupIndices.add(groupIndex);
+            }
+        }
+        this.groupIndices = allGroupIndices.stream().mapToInt(Integer::intValue).toArray();
+        this.specificityRanks = rankBySpecificity(allBasePackages);
+        this.basePackageIndex = PackagePatternTrie.of(allBasePackages);
+        this.selectionClassNameIndependent = allBasePackages.stream()
+                .allMatch(BannedImportGroups::isClassNameIndependent);
+    }
+
+    private static int[] rankBySpecificity(List<PackagePattern> basePackages) {
+        // stable sort keeps declaration order of equally specific base packages
+        final Integer[] order = new Integer[basePackages.size()];
+        Arrays.setAll(order, Integer::valueOf);
+        Arrays.sort(order, (a, b) -> basePackages.get(b).compareTo(basePackages.get(a)));
+
+        final int[] ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; ++rank) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static boolean isClassNameIndependent(PackagePattern basePackage) {
+        // A pattern's match result can only be independent of the last segment of a
+        // fqcn if it ends with a wildcard. '**' in any other position might consume the
+        // class name during matching
+        final QualifiedName parts = QualifiedName.parse(basePackage.toString());
+        final int last = parts.getSegmentCount() - 1;
+        for (int i = 0; i < last; ++i) {
+            if (parts.segmentEquals(i, "**")) {
+                return false;
+            }
+        }
+        return parts.segmentEquals(last, "*") || parts.segmentEquals(last, "**");
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    List<BannedImportGroup> getGroups() {
+        return this.groups;
+    }
+
     /**
      * Selects the {@link BannedImportGroup} with the most specific base package matching
      * the given full qualified class name. If the most specific match also specifies an
@@ -35,21 +91,104 @@ public final class BannedImportGroups {
      * @return The group with the most specific base package match.
      */
     public Optional<BannedImportGroup> selectGroupFor(String fqcn) {
-        return groups.stream()
-                .map(group -> matches(group, fqcn))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .sorted()
-                .map(GroupMatch::getGroup)
-                .findFirst()
+        return selectGroupFor(QualifiedName.parse(fqcn));
+    }
+
+    /**
+     * Selects the {@link BannedImportGroup} with the most specific base package matching
+     * the given full qualified class name. If the most specific match also specifies an
+     * exclusion pattern for the given fqcn the result will be empty.
+     *
+     * @param fqcn The full qualified class name to find the group for.
+     * @return The group with the most specific base package match.
+     * @since 0.15.0
+     */
+    public Optional<BannedImportGroup> selectGroupFor(QualifiedName fqcn) {
+        return selectMostSpecificGroup(fqcn)
                 .filter(group -> !group.exclusionMatches(fqcn));
     }
 
-    private Optional<GroupMatch> matches(BannedImportGroup group, String fqcn) {
-        return group.getBasePackages().stream()
-                .filter(pattern -> pattern.matches(fqcn))
-                .findFirst()
-                .map(basePackage -> new GroupMatch(basePackage, group));
+    /**
+     * Selects the {@link BannedImportGroup} with the most specific base package matching
+     * the given full qualified class name without considering the group's exclusions.
+     *
+     * @param fqcn The full qualified class name to find the group for.
+     * @return The group with the most specific base package match.
+     */
+    Optional<BannedImportGroup> selectMostSpecificGroup(QualifiedName fqcn) {
+        final BitSet matchingBasePackages = basePackageIndex.matchingIndices(fqcn);
+        int bestRank = Integer.MAX_VALUE;
+        int bestGroup = -1;
+        int previousGroup = -1;
+        for (int i = matchingBasePackages.nextSetBit(0); i >= 0; i = matchingBasePackages
+                .nextSetBit(i + 1)) {
+            final int groupIndex = groupIndices[i];
+            // only the first matching base package of each group is relevant
+            if (groupIndex != previousGroup) {
+                previousGroup = groupIndex;
+                if (specificityRanks[i] < bestRank) {
+                    bestRank = specificityRanks[i];
+                    bestGroup = groupIndex;
+                }
+            }
+        }
+        return bestGroup < 0
+                ? Optional.empty()
+                : Optional.of(groups.get(bestGroup));
+    }
+
+    /**
+     * Whether the result of {@link #selectMostSpecificGroup(QualifiedName)} only depends
+     * on the package of the class, but not on the simple class name.
+     *
+     * @return Whether all classes of a package resolve to the same group.
+     */
+    boolean isSelectionClassNameIndependent() {
+        return this.selectionClassNameIndependent;
+    }
+
+    /**
+     * Whether any class within the given package or one of its sub packages might be
+     * assigned a group by {@link #selectGroupFor(QualifiedName)}. The result is
+     * conservative: it is only false if no base package can match any such class or if
+     * every group whose base package might match excludes all of these classes.
+     *
+     * @param packageName The package name.
+     * @return Whether classes within the package might be subject to a group.
+     */
+    boolean mayMatchBelow(QualifiedName packageName) {
+        final BitSet candidates = basePackageIndex.candidatesBelow(packageName);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final BannedImportGroup group = groups.get(groupIndices[i]);
+            if (!excludesAllBelow(group, packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean excludesAllBelow(BannedImportGroup group,
+            QualifiedName packageName) {
+        return group.getExcludedClasses().stream()
+                .anyMatch(exclusion -> matchesAllBelow(exclusion, packageName));
+    }
+
+    private static boolean matchesAllBelow(PackagePattern pattern, QualifiedName packageName) {
+        // Only patterns like 'com.*.legacy.**' whose leading segments match a prefix of
+        // the package are guaranteed to match every class below it
+        final QualifiedName parts = QualifiedName.parse(pattern.toString());
+        final int last = parts.getSegmentCount() - 1;
+        if (pattern.isStatic() || !parts.segmentEquals(last, "**")
+                || last > packageName.getSegmentCount()) {
+            return false;
+        }
+        for (int i = 0; i < last; ++i) {
+            if (!parts.segmentEquals(i, "*") && (parts.segmentEquals(i, "**")
+                    || !packageName.segmentEquals(i, parts.getSegment(i)))) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -68,25 +207,6 @@ public final class BannedImportGroups {
         return groups.stream().map(BannedImportGroup::toString).collect(Collectors.joining(System.lineSeparator()));
     }
 
-    private static class GroupMatch implements Comparable<GroupMatch> {
-        private final PackagePattern basePackage;
-        private final BannedImportGroup group;
-
-        public GroupMatch(PackagePattern basePackage, BannedImportGroup group) {
-            this.basePackage = basePackage;
-            this.group = group;
-        }
-
-        public BannedImportGroup getGroup() {
-            return this.group;
-        }
-
-        @Override
-        public int compareTo(GroupMatch o) {
-            return o.basePackage.compareTo(basePackage);
-        }
-    }
-
     public static final class Builder {
         private final List<BannedImportGroup> groups = new ArrayList<>();
 
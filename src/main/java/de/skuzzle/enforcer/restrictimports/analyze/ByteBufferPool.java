@@ -0,0 +1,46 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Thread safe pool of direct byte buffers of a fixed size. The pool does not limit the
+ * amount of buffers that are handed out, so it will grow up to the number of files that
+ * are read concurrently.
+ *
+ * @author Simon Taddiken
+ */
+final class ByteBufferPool {
+
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final int bufferSize;
+
+    ByteBufferPool(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Takes a buffer from the pool or allocates a new one if the pool is empty. The
+     * returned buffer must be passed to {@link #release(ByteBuffer)} once it is not used
+     * anymore.
+     *
+     * @return The buffer.
+     */
+    ByteBuffer acquire() {
+        final ByteBuffer buffer = this.buffers.poll();
+        return buffer == null
+                ? ByteBuffer.allocateDirect(this.bufferSize)
+                : buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool.
+     *
+     * @param buffer The buffer.
+     */
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        this.buffers.offer(buffer);
+    }
+}
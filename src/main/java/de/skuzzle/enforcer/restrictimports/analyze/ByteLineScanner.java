@@ -0,0 +1,301 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits the raw bytes of a java source file into lines while skipping all comments.
+ * Comment detection and line splitting work directly on the bytes so that only the code
+ * remaining on each line needs to be decoded into a String. This is only possible for
+ * charsets which encode every ASCII character as a single byte of the same value and
+ * never use such bytes within multi byte sequences (see {@link #supports(Charset)}).
+ * <p>
+ * Like the {@link SkipCommentsReader}, block comments that span multiple lines are
+ * replaced by the same amount of empty lines in order to keep track of the correct line
+ * number. Line endings are recognized the same way as by
+ * {@link java.io.BufferedReader#readLine()}.
+ * <p>
+ * Lines are scanned lazily, so no more bytes are read from the underlying channel than
+ * are needed to produce the lines that have actually been requested. Alternatively, the
+ * scanner can operate on a buffer which already holds the whole content, like a memory
+ * mapped file (see {@link #scanning(ByteBuffer, Charset)}).
+ *
+ * @author Simon Taddiken
+ */
+final class ByteLineScanner implements Iterator<String>, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int INITIAL_LINE_SIZE = 128;
+
+    private static final int CODE = 0;
+    private static final int SLASH = 1;
+    private static final int LINE_COMMENT = 2;
+    private static final int BLOCK_COMMENT = 3;
+    private static final int BLOCK_COMMENT_STAR = 4;
+    private static final int STRING_LITERAL = 5;
+    private static final int STRING_LITERAL_ESCAPE = 6;
+    private static final int CHAR_LITERAL = 7;
+    private static final int CHAR_LITERAL_ESCAPE = 8;
+
+    private final ReadableByteChannel channel;
+    private final Charset charset;
+    private final ByteBuffer buffer;
+
+    private byte[] line = new byte[INITIAL_LINE_SIZE];
+    private int lineLength;
+
+    private int state = CODE;
+    private boolean skipLineFeed;
+    private boolean eos;
+    private String nextLine;
+
+    ByteLineScanner(ReadableByteChannel channel, Charset charset) {
+        this(channel, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    ByteLineScanner(ReadableByteChannel channel, Charset charset, int bufferSize) {
+        this(channel, ByteBuffer.allocate(bufferSize), charset);
+    }
+
+    /**
+     * Creates a scanner which reads from the given channel using the given buffer. The
+     * buffer's content is discarded.
+     *
+     * @param channel The channel to read from.
+     * @param buffer The buffer to read into.
+     * @param charset The charset of the channel's content.
+     */
+    ByteLineScanner(ReadableByteChannel channel, ByteBuffer buffer, Charset charset) {
+        this.channel = channel;
+        this.charset = charset;
+        this.buffer = buffer;
+        this.buffer.clear();
+        this.buffer.flip();
+    }
+
+    private ByteLineScanner(ByteBuffer content, Charset charset) {
+        this.channel = null;
+        this.charset = charset;
+        this.buffer = content;
+    }
+
+    /**
+     * Creates a scanner which scans the remaining bytes of the given buffer. Scanning
+     * advances the buffer's position.
+     *
+     * @param content The content to scan.
+     * @param charset The charset of the content.
+     * @return The scanner.
+     */
+    static ByteLineScanner scanning(ByteBuffer content, Charset charset) {
+        return new ByteLineScanner(content, charset);
+    }
+
+    /**
+     * Determines whether the given charset can be handled by this scanner. That is the
+     * case for all charsets that are a strict superset of US-ASCII in the sense that
+     * bytes within the ASCII range always represent the respective ASCII character.
+     *
+     * @param charset The charset to test.
+     * @return Whether the charset can be handled by this scanner.
+     */
+    static boolean supports(Charset charset) {
+        final String name = charset.name();
+        return "UTF-8".equals(name)
+                || "US-ASCII".equals(name)
+                || name.startsWith("ISO-8859-")
+                || name.startsWith("windows-125");
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextLine == null && !this.eos) {
+            try {
+                this.nextLine = scanLine();
+            } catch (final IOException e) {
+                throw new RuntimeIOException("Encountered IOException while scanning source file", e);
+            }
+        }
+        return this.nextLine != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String result = this.nextLine;
+        this.nextLine = null;
+        return result;
+    }
+
+    private String scanLine() throws IOException {
+        while (true) {
+            if (!this.buffer.hasRemaining() && !fillBuffer()) {
+                return endOfStream();
+            }
+            final byte next = this.buffer.get();
+            if (this.skipLineFeed) {
+                this.skipLineFeed = false;
+                if (next == '\n') {
+                    // second half of a CRLF line break
+                    continue;
+                }
+            }
+            final String completedLine = consume(next);
+            if (completedLine != null) {
+                return completedLine;
+            }
+        }
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (this.channel == null) {
+            return false;
+        }
+        this.buffer.clear();
+        int read;
+        do {
+            read = this.channel.read(this.buffer);
+        } while (read == 0);
+        this.buffer.flip();
+        return read > 0;
+    }
+
+    /**
+     * Feeds the next byte into the state machine.
+     *
+     * @param b The byte.
+     * @return The completed line if the byte terminated a line, otherwise null.
+     */
+    private String consume(byte b) {
+        switch (this.state) {
+        case CODE:
+            if (b == '/') {
+                this.state = SLASH;
+                return null;
+            } else if (b == '"') {
+                this.state = STRING_LITERAL;
+            } else if (b == '\'') {
+                this.state = CHAR_LITERAL;
+            } else if (isLineBreak(b)) {
+                return completeLine(b);
+            }
+            append(b);
+            return null;
+
+        case SLASH:
+            if (b == '*') {
+                this.state = BLOCK_COMMENT;
+                return null;
+            } else if (b == '/') {
+                this.state = LINE_COMMENT;
+                return null;
+            }
+            // just a single slash, followed by something else
+            append((byte) '/');
+            this.state = CODE;
+            return consume(b);
+
+        case LINE_COMMENT:
+            if (isLineBreak(b)) {
+                this.state = CODE;
+                return completeLine(b);
+            }
+            return null;
+
+        case BLOCK_COMMENT:
+        case BLOCK_COMMENT_STAR:
+            if (b == '/' && this.state == BLOCK_COMMENT_STAR) {
+                this.state = CODE;
+                return null;
+            } else if (b == '*') {
+                this.state = BLOCK_COMMENT_STAR;
+                return null;
+            }
+            this.state = BLOCK_COMMENT;
+            if (isLineBreak(b)) {
+                return completeLine(b);
+            }
+            return null;
+
+        case STRING_LITERAL:
+        case CHAR_LITERAL:
+            if (isLineBreak(b)) {
+                // unterminated literal
+                this.state = CODE;
+                return completeLine(b);
+            } else if (b == '\\') {
+                this.state = this.state == STRING_LITERAL
+                        ? STRING_LITERAL_ESCAPE
+                        : CHAR_LITERAL_ESCAPE;
+            } else if (b == '"' && this.state == STRING_LITERAL
+                    || b == '\'' && this.state == CHAR_LITERAL) {
+                this.state = CODE;
+            }
+            append(b);
+            return null;
+
+        case STRING_LITERAL_ESCAPE:
+        case CHAR_LITERAL_ESCAPE:
+            if (isLineBreak(b)) {
+                this.state = CODE;
+                return completeLine(b);
+            }
+            this.state = this.state == STRING_LITERAL_ESCAPE
+                    ? STRING_LITERAL
+                    : CHAR_LITERAL;
+            append(b);
+            return null;
+
+        default:
+            throw new IllegalStateException("Unknown state: " + this.state);
+        }
+    }
+
+    private String endOfStream() {
+        this.eos = true;
+        if (this.state == SLASH) {
+            append((byte) '/');
+        }
+        if (this.lineLength == 0) {
+            return null;
+        }
+        return decodeLine();
+    }
+
+    private static boolean isLineBreak(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private String completeLine(byte lineBreak) {
+        this.skipLineFeed = lineBreak == '\r';
+        return decodeLine();
+    }
+
+    private String decodeLine() {
+        final String result = new String(this.line, 0, this.lineLength, this.charset);
+        this.lineLength = 0;
+        return result;
+    }
+
+    private void append(byte b) {
+        if (this.lineLength == this.line.length) {
+            this.line = Arrays.copyOf(this.line, this.line.length * 2);
+        }
+        this.line[this.lineLength++] = b;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Channel which hands out the contents of a file in growing chunks. The first read
+ * returns at most {@value #INITIAL_CHUNK_SIZE} bytes and every subsequent read may
+ * return up to four times as many bytes as the previous one, until
+ * {@value #MAX_CHUNK_SIZE} bytes are reached.
+ * <p>
+ * As we are only interested in the package and import statements at the very beginning
+ * of each java source file, this keeps the amount of bytes that are read beyond the
+ * import section low, even for huge (generated) files.
+ *
+ * @author Simon Taddiken
+ */
+final class ChunkedReadChannel implements ReadableByteChannel {
+
+    static final int INITIAL_CHUNK_SIZE = 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024;
+
+    private final SeekableByteChannel delegate;
+    private int chunkSize = INITIAL_CHUNK_SIZE;
+    private long bytesRead;
+
+    ChunkedReadChannel(SeekableByteChannel delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        final int limit = dst.limit();
+        if (dst.remaining() > this.chunkSize) {
+            dst.limit(dst.position() + this.chunkSize);
+        }
+        final int read;
+        try {
+            read = this.delegate.read(dst);
+        } finally {
+            dst.limit(limit);
+        }
+
+        if (read > 0) {
+            this.bytesRead += read;
+            this.chunkSize = Math.min(this.chunkSize * 4, MAX_CHUNK_SIZE);
+        }
+        return read;
+    }
+
+    /**
+     * The number of bytes that have been read from this channel so far.
+     *
+     * @return The number of bytes.
+     */
+    long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /**
+     * The size of the underlying file.
+     *
+     * @return The size in bytes.
+     * @throws IOException If the size can not be determined.
+     */
+    long size() throws IOException {
+        return this.delegate.size();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return this.delegate.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.delegate.close();
+    }
+}
@@ -0,0 +1,177 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+import com.google.common.base.Throwables;
+
+/**
+ * Walks source trees using all workers of a {@link ForkJoinPool}. Every directory is
+ * listed by its own task, so idle workers steal the listing of subdirectories from busy
+ * ones. Source files are passed to the consumer by the worker which discovered them while
+ * other workers continue walking, so that walking and analyzing overlap. Large
+ * directories are split into batches of files which can be stolen as well.
+ * <p>
+ * Every entry's attributes are read exactly once and passed to the
+ * {@link SourceFileFilter}. Like with {@link Files#walkFileTree}, symbolic links to
+ * directories are not followed. Directories which are excluded by the filter are not
+ * listed at all.
+ *
+ * @author Simon Taddiken
+ */
+final class ConcurrentSourceTreeWalker {
+
+    private static final int BATCH_SIZE = 32;
+
+    private final ForkJoinPool pool;
+    private final AnalyzeStatistics statistics;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a new walker.
+     *
+     * @param pool The pool which executes the walk.
+     * @param statistics Records the number of files walked and the time spent in listing
+     *            directories.
+     */
+    ConcurrentSourceTreeWalker(ForkJoinPool pool, AnalyzeStatistics statistics) {
+        this.pool = pool;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Walks the given root and passes all source files to the given consumer. The
+     * consumer is called concurrently from different threads. Returns when all files have
+     * been consumed or when the walker has been {@link #stop() stopped}.
+     *
+     * @param root The root directory to walk. Nothing happens if it does not exist. If it
+     *            is a file, only the file itself is consumed.
+     * @param sourceFileFilter Selects the files which are passed to the consumer and the
+     *            directories which are skipped.
+     * @param sourceFileConsumer Receives the source files.
+     */
+    void walk(Path root, SourceFileFilter sourceFileFilter, Consumer<Path> sourceFileConsumer) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(root,
+                    BasicFileAttributes.class);
+            if (!attributes.isDirectory()) {
+                if (sourceFileFilter.isSourceFile(root, attributes)) {
+                    sourceFileConsumer.accept(root);
+                }
+                return;
+            }
+            pool.submit(new DirectoryTask(root, sourceFileFilter, sourceFileConsumer)).get();
+        } catch (final IOException e) {
+            throw new RuntimeIOException("Encountered IOException while listing files of "
+                    + root, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while analyzing source files", e);
+        } catch (final ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException("Encountered exception while analyzing source files",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Stops all running and future walks. Files which are currently being consumed are
+     * still completed.
+     */
+    void stop() {
+        this.stopped = true;
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        private final SourceFileFilter sourceFileFilter;
+        private final Consumer<Path> sourceFileConsumer;
+
+        private DirectoryTask(Path directory, SourceFileFilter sourceFileFilter,
+                Consumer<Path> sourceFileConsumer) {
+            this.directory = directory;
+            this.sourceFileFilter = sourceFileFilter;
+            this.sourceFileConsumer = sourceFileConsumer;
+        }
+
+        @Override
+        protected void compute() {
+            if (stopped) {
+                return;
+            }
+            final long start = System.nanoTime();
+            final List<ForkJoinTask<?>> subTasks = new ArrayList<>();
+            final List<Path> sourceFiles = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (final Path entry : entries) {
+                    final BasicFileAttributes attributes = Files.readAttributes(entry,
+                            BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    if (attributes.isDirectory()) {
+                        if (!sourceFileFilter.isExcludedDirectory(entry)) {
+                            subTasks.add(new DirectoryTask(entry, sourceFileFilter,
+                                    sourceFileConsumer).fork());
+                        }
+                    } else if (sourceFileFilter.isSourceFile(entry, attributes)) {
+                        sourceFiles.add(entry);
+                    }
+                }
+            } catch (final IOException e) {
+                throw new RuntimeIOException("Encountered IOException while listing files of "
+                        + directory, e);
+            }
+            statistics.recordWalk(sourceFiles.size(), System.nanoTime() - start);
+
+            for (int i = BATCH_SIZE; i < sourceFiles.size(); i += BATCH_SIZE) {
+                final List<Path> batch = sourceFiles.subList(i,
+                        Math.min(i + BATCH_SIZE, sourceFiles.size()));
+                subTasks.add(new FilesTask(batch, sourceFileConsumer).fork());
+            }
+            new FilesTask(sourceFiles.subList(0, Math.min(BATCH_SIZE, sourceFiles.size())),
+                    sourceFileConsumer).compute();
+
+            for (int i = subTasks.size() - 1; i >= 0; --i) {
+                subTasks.get(i).join();
+            }
+        }
+    }
+
+    private final class FilesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> sourceFiles;
+        private final Consumer<Path> sourceFileConsumer;
+
+        private FilesTask(List<Path> sourceFiles, Consumer<Path> sourceFileConsumer) {
+            this.sourceFiles = sourceFiles;
+            this.sourceFileConsumer = sourceFileConsumer;
+        }
+
+        @Override
+        protected void compute() {
+            for (final Path sourceFile : sourceFiles) {
+                if (stopped) {
+                    return;
+                }
+                sourceFileConsumer.accept(sourceFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Thread safe cache for the group selection of {@link BannedImportGroups} which is keyed
+ * by package name. Usually all classes within the same package resolve to the same
+ * group, so the group only needs to be selected once per package. Exclusions are still
+ * checked for every single class.
+ * <p>
+ * Caching is only possible if no base package pattern of any group depends on the simple
+ * class name (see {@link BannedImportGroups#isSelectionClassNameIndependent()}). If that
+ * is not the case, every lookup is delegated to
+ * {@link BannedImportGroups#selectGroupFor(QualifiedName)}.
+ *
+ * @author Simon Taddiken
+ */
+final class GroupSelectionCache {
+
+    private final BannedImportGroups groups;
+    private final boolean enabled;
+    private final ConcurrentMap<String, Optional<BannedImportGroup>> cache =
+            new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    GroupSelectionCache(BannedImportGroups groups) {
+        this.groups = groups;
+        this.enabled = groups.isSelectionClassNameIndependent();
+    }
+
+    /**
+     * Whether this cache holds selections of the given groups.
+     *
+     * @param groups The groups.
+     * @return Whether this cache can be used for the given groups.
+     */
+    boolean isFor(BannedImportGroups groups) {
+        return this.groups == groups;
+    }
+
+    /**
+     * Whether caching is possible for the groups of this cache.
+     *
+     * @return Whether caching is enabled.
+     */
+    boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Selects the group for the given class.
+     *
+     * @param packageName The package of the class.
+     * @param fqcn The full qualified name of the class.
+     * @return The selected group.
+     * @see BannedImportGroups#selectGroupFor(QualifiedName)
+     */
+    Optional<BannedImportGroup> selectGroupFor(String packageName, QualifiedName fqcn) {
+        if (!this.enabled) {
+            return this.groups.selectGroupFor(fqcn);
+        }
+
+        Optional<BannedImportGroup> group = this.cache.get(packageName);
+        if (group == null) {
+            this.misses.increment();
+            group = this.groups.selectMostSpecificGroup(fqcn);
+            this.cache.putIfAbsent(packageName, group);
+        } else {
+            this.hits.increment();
+        }
+        return group.filter(selected -> !selected.exclusionMatches(fqcn));
+    }
+
+    long getHits() {
+        return this.hits.sum();
+    }
+
+    long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("enabled", this.enabled)
+                .add("hits", getHits())
+                .add("misses", getMisses())
+                .toString();
+    }
+}
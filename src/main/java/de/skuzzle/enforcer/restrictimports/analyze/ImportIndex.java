@@ -0,0 +1,384 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+
+import de.skuzzle.enforcer.restrictimports.analyze.SourceFileHeader.Statement;
+
+/**
+ * Persistent index of the {@link SourceFileHeader SourceFileHeaders} of all source files
+ * below a single source root, keyed by their path relative to the root. Along with each
+ * header, the index stores the file's size, last modification time and a hash of the
+ * leading bytes from which the header has been read. A header is reused if size and
+ * modification time are unchanged. If only the modification time differs, the hash of
+ * these bytes decides whether the header might have been changed. Thus only the part of
+ * a file that is read anyway for its header is ever hashed.
+ * <p>
+ * The index file is read into memory at once when being loaded. Only the file names and
+ * stamps are decoded eagerly while the statements of a file are decoded from the buffer
+ * when they are requested for the first time. The index file is deliberately not memory
+ * mapped: undecoded entries keep the buffer reachable and a file that is still mapped
+ * can not be replaced on Windows when the index is saved.
+ * <p>
+ * The whole index is discarded if it has been written by a different version of this
+ * plugin, for a different source file charset or for a different root. Errors while
+ * reading or writing the index file are logged but never fail the analysis.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class ImportIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportIndex.class);
+
+    private static final int MAGIC = 0x52494458;
+    private static final int FORMAT_VERSION = 2;
+    private static final String PLUGIN_VERSION = PluginVersion.get();
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final Path root;
+    private final Path indexFile;
+    private final Charset charset;
+    private final Map<String, Entry> entries;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean modified = new AtomicBoolean();
+
+    private ImportIndex(Path root, Path indexFile, Charset charset,
+            Map<String, Entry> entries) {
+        this.root = root;
+        this.indexFile = indexFile;
+        this.charset = charset;
+        this.entries = entries;
+    }
+
+    /**
+     * Determines the location of the index file for the given source root.
+     *
+     * @param directory The directory containing all index files.
+     * @param root The source root.
+     * @return The path of the index file.
+     */
+    static Path indexFileFor(Path directory, Path root) {
+        final String rootName = root.toAbsolutePath().toString();
+        return directory.resolve("imports-"
+                + Hashing.murmur3_32().hashString(rootName, StandardCharsets.UTF_8) + ".idx");
+    }
+
+    /**
+     * Loads the index of the given source root. If there is no index file or if it is not
+     * compatible, an empty index is returned.
+     *
+     * @param indexFile The index file.
+     * @param root The source root.
+     * @param charset The charset that is used to read source files.
+     * @return The index.
+     */
+    static ImportIndex load(Path indexFile, Path root, Charset charset) {
+        final Path absoluteRoot = root.toAbsolutePath();
+        final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        try {
+            final ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (readEntries(content, absoluteRoot.toString(), charset, entries)) {
+                LOGGER.debug("Loaded {} indexed source files from {}", entries.size(),
+                        indexFile);
+            } else {
+                LOGGER.debug("Discarding incompatible import index {}", indexFile);
+                entries.clear();
+            }
+        } catch (final NoSuchFileException e) {
+            LOGGER.debug("No import index found at {}", indexFile);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not read import index {}: {}", indexFile, e.toString());
+            entries.clear();
+        } catch (final BufferUnderflowException | IllegalArgumentException e) {
+            LOGGER.warn("Discarding corrupt import index {}", indexFile);
+            entries.clear();
+        }
+        return new ImportIndex(absoluteRoot, indexFile, charset, entries);
+    }
+
+    private static boolean readEntries(ByteBuffer in, String rootName, Charset charset,
+            Map<String, Entry> entries) {
+        if (in.getInt() != MAGIC
+                || in.getInt() != FORMAT_VERSION
+                || !PLUGIN_VERSION.equals(getString(in))
+                || !charset.name().equals(getString(in))
+                || !rootName.equals(getString(in))) {
+            return false;
+        }
+
+        final int entryCount = in.getInt();
+        for (int i = 0; i < entryCount; ++i) {
+            final String path = getString(in);
+            final long size = in.getLong();
+            final long lastModified = in.getLong();
+            final long hashedBytes = in.getLong();
+            final byte[] hash = new byte[in.get() & 0xFF];
+            in.get(hash);
+
+            final int statementsLength = in.getInt();
+            final int statementsOffset = in.position();
+            in.position(statementsOffset + statementsLength);
+            entries.put(path, new Entry(size, lastModified, hashedBytes, hash, in,
+                    statementsOffset));
+        }
+        return true;
+    }
+
+    /**
+     * Whether this index belongs to the given root and has been created for the given
+     * charset.
+     *
+     * @param root The source root.
+     * @param charset The charset.
+     * @return Whether this index can be used.
+     */
+    boolean isFor(Path root, Charset charset) {
+        return this.root.equals(root.toAbsolutePath()) && this.charset.equals(charset);
+    }
+
+    /**
+     * Returns the indexed header of the given file if the file has not been changed since
+     * it has been indexed. Otherwise the header is read using the given function and
+     * stored in the index.
+     *
+     * @param sourceFile The source file. Must be located below this index's root.
+     * @param headerReader Function for reading the header if it is not indexed.
+     * @return The header of the file.
+     */
+    SourceFileHeader getHeader(Path sourceFile,
+            Function<Path, SourceFileHeader> headerReader) {
+        final String key = this.root.relativize(sourceFile.toAbsolutePath()).toString();
+        this.seen.add(key);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(sourceFile,
+                    BasicFileAttributes.class);
+            final long size = attributes.size();
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+
+            final Entry indexed = this.entries.get(key);
+            final SourceFileHeader header = indexed != null && indexed.size == size
+                    ? indexed.decodeHeader()
+                    : null;
+            if (header == null) {
+                return readAndStore(key, sourceFile, attributes, headerReader);
+            } else if (indexed.lastModified == lastModified) {
+                return header;
+            } else if (Arrays.equals(hash(sourceFile, indexed.hashedBytes), indexed.hash)) {
+                store(key, new Entry(size, lastModified, indexed.hashedBytes, indexed.hash,
+                        header));
+                return header;
+            }
+            return readAndStore(key, sourceFile, attributes, headerReader);
+        } catch (final IOException e) {
+            throw new RuntimeIOException(String.format(
+                    "Encountered IOException while analyzing %s for banned imports",
+                    sourceFile), e);
+        }
+    }
+
+    private SourceFileHeader readAndStore(String key, Path sourceFile,
+            BasicFileAttributes attributes, Function<Path, SourceFileHeader> headerReader)
+            throws IOException {
+        final SourceFileHeader header = headerReader.apply(sourceFile);
+        final long size = attributes.size();
+        final long lastModified = attributes.lastModifiedTime().toMillis();
+        final long hashedBytes = Math.min(header.getBytesScanned(), size);
+        byte[] hash = hash(sourceFile, hashedBytes);
+
+        // The hash is computed after the header has been read. If the file has been
+        // modified in between, the hash must not vouch for the header
+        final BasicFileAttributes current = Files.readAttributes(sourceFile,
+                BasicFileAttributes.class);
+        if (current.size() != size
+                || current.lastModifiedTime().toMillis() != lastModified) {
+            hash = new byte[0];
+        }
+        store(key, new Entry(size, lastModified, hashedBytes, hash, header));
+        return header;
+    }
+
+    private void store(String key, Entry entry) {
+        this.entries.put(key, entry);
+        this.modified.set(true);
+    }
+
+    private static byte[] hash(Path file, long length) throws IOException {
+        return MoreFiles.asByteSource(file).slice(0, length).hash(HASH_FUNCTION).asBytes();
+    }
+
+    /**
+     * Writes the index to disk if it has been modified. Entries of files that have not
+     * been requested since the last time the index has been saved are only kept if the
+     * respective file still exists.
+     */
+    synchronized void save() {
+        final boolean pruned = this.entries.keySet().removeIf(path -> !this.seen.contains(path)
+                && !Files.exists(this.root.resolve(path)));
+        this.seen.clear();
+        if (!this.modified.getAndSet(false) && !pruned) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(this.indexFile.getParent());
+            final Path tempFile = Files.createTempFile(this.indexFile.getParent(),
+                    this.indexFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                writeEntries(out);
+            }
+            Files.move(tempFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.debug("Wrote {} indexed source files to {}", this.entries.size(),
+                    this.indexFile);
+        } catch (final IOException e) {
+            this.modified.set(true);
+            LOGGER.warn("Could not write import index {}: {}", this.indexFile, e.toString());
+        }
+    }
+
+    private void writeEntries(DataOutputStream out) throws IOException {
+        final List<Map.Entry<String, Entry>> snapshot = new ArrayList<>();
+        for (final Map.Entry<String, Entry> mapEntry : this.entries.entrySet()) {
+            // skip entries which can not be decoded from a corrupt index file
+            if (mapEntry.getValue().decodeHeader() != null) {
+                snapshot.add(mapEntry);
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        putString(out, PLUGIN_VERSION);
+        putString(out, this.charset.name());
+        putString(out, this.root.toString());
+        out.writeInt(snapshot.size());
+        for (final Map.Entry<String, Entry> mapEntry : snapshot) {
+            final Entry entry = mapEntry.getValue();
+            putString(out, mapEntry.getKey());
+            out.writeLong(entry.size);
+            out.writeLong(entry.lastModified);
+            out.writeLong(entry.hashedBytes);
+            out.writeByte(entry.hash.length);
+            out.write(entry.hash);
+
+            final byte[] statements = encode(entry.decodeHeader());
+            out.writeInt(statements.length);
+            out.write(statements);
+        }
+    }
+
+    private static byte[] encode(SourceFileHeader header) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            final List<Statement> statements = header.getStatements();
+            out.writeInt(statements.size());
+            for (final Statement statement : statements) {
+                out.writeInt(statement.getLine());
+                out.writeBoolean(statement.isPackageStatement());
+                putString(out, statement.getName());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SourceFileHeader decode(ByteBuffer buffer, int offset) {
+        final ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        final int statementCount = in.getInt();
+        final List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < statementCount; ++i) {
+            final int line = in.getInt();
+            final boolean packageStatement = in.get() != 0;
+            final String name = getString(in);
+            statements.add(packageStatement
+                    ? Statement.packageStatement(line, name)
+                    : Statement.importStatement(line, name));
+        }
+        return new SourceFileHeader(statements);
+    }
+
+    private static void putString(DataOutputStream out, String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        final byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final long hashedBytes;
+        private final byte[] hash;
+
+        // Either the header is known or it is decoded lazily from the buffer
+        private final ByteBuffer buffer;
+        private final int offset;
+        private volatile SourceFileHeader header;
+
+        private Entry(long size, long lastModified, long hashedBytes, byte[] hash,
+                SourceFileHeader header) {
+            this(size, lastModified, hashedBytes, hash, null, -1);
+            this.header = header;
+        }
+
+        private Entry(long size, long lastModified, long hashedBytes, byte[] hash,
+                ByteBuffer buffer, int offset) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hashedBytes = hashedBytes;
+            this.hash = hash;
+            this.buffer = buffer;
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the header, decoding it from the index file if necessary.
+         *
+         * @return The header or null if it could not be decoded.
+         */
+        private SourceFileHeader decodeHeader() {
+            SourceFileHeader result = this.header;
+            if (result == null) {
+                try {
+                    result = decode(this.buffer, this.offset);
+                } catch (final BufferUnderflowException | IllegalArgumentException e) {
+                    return null;
+                }
+                this.header = result;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Provides access to the {@link ImportIndex ImportIndexes} of all source roots of a
+ * single analysis. Loaded indexes are kept in memory and are shared by all analyses
+ * within the same JVM. When the rule is executed multiple times for the same module
+ * with different groups, only the first execution reads the source files while all
+ * further executions merely match the indexed statements.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class ImportIndexes {
+
+    // The limit only protects long running JVMs which execute many builds
+    private static final int MAXIMUM_SIZE = 256;
+    private static final ConcurrentMap<Path, ImportIndex> LOADED = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .<Path, ImportIndex> build()
+            .asMap();
+
+    private static final Comparator<Path> LONGEST_FIRST = Comparator
+            .comparingInt(Path::getNameCount)
+            .reversed();
+
+    // sorted so that nested roots are found before their parents
+    private final Map<Path, ImportIndex> indexes;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ImportIndexes(Map<Path, ImportIndex> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * Opens the indexes of the given source roots.
+     *
+     * @param directory The directory containing the index files.
+     * @param roots The source roots.
+     * @param charset The charset that is used to read source files.
+     * @return The indexes.
+     */
+    static ImportIndexes open(Path directory, Collection<Path> roots, Charset charset) {
+        final Map<Path, ImportIndex> indexes = new LinkedHashMap<>();
+        roots.stream()
+                .map(Path::toAbsolutePath)
+                .sorted(LONGEST_FIRST)
+                .forEach(root -> indexes.put(root, open(directory, root, charset)));
+        return new ImportIndexes(indexes);
+    }
+
+    private static ImportIndex open(Path directory, Path root, Charset charset) {
+        final Path indexFile = ImportIndex.indexFileFor(directory, root);
+        return LOADED.compute(indexFile, (file, loaded) -> loaded != null
+                && loaded.isFor(root, charset)
+                && Files.exists(file)
+                        ? loaded
+                        : ImportIndex.load(file, root, charset));
+    }
+
+    /**
+     * Returns the indexed header of the given source file, reading it using the given
+     * function if the file is not indexed or has been changed.
+     *
+     * @param sourceFile The source file.
+     * @param headerReader Function for reading the header.
+     * @return The header of the file.
+     */
+    SourceFileHeader getHeader(Path sourceFile,
+            Function<Path, SourceFileHeader> headerReader) {
+        this.lookups.increment();
+        final Function<Path, SourceFileHeader> countingReader = file -> {
+            this.misses.increment();
+            return headerReader.apply(file);
+        };
+        return indexOf(sourceFile)
+                .map(index -> index.getHeader(sourceFile, countingReader))
+                .orElseGet(() -> countingReader.apply(sourceFile));
+    }
+
+    private Optional<ImportIndex> indexOf(Path sourceFile) {
+        final Path absoluteFile = sourceFile.toAbsolutePath();
+        return this.indexes.entrySet().stream()
+                .filter(entry -> absoluteFile.startsWith(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+
+    /**
+     * Writes all modified indexes to disk.
+     */
+    void save() {
+        this.indexes.values().stream()
+                .distinct()
+                .forEach(ImportIndex::save);
+    }
+
+    long getHits() {
+        return this.lookups.sum() - this.misses.sum();
+    }
+
+    long getMisses() {
+        return this.misses.sum();
+    }
+}
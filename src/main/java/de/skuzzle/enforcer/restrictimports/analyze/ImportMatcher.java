@@ -20,4 +20,28 @@ interface ImportMatcher {
      *         empty optional if no matches were found.
      */
     Optional<MatchedFile> matchFile(Path sourceFile, BannedImportGroups groups);
+
+    /**
+     * Reads the package and import statements from the given java source file without
+     * matching them against any banned imports.
+     *
+     * @param sourceFile The path to a java source file.
+     * @return The header of the source file.
+     */
+    SourceFileHeader readHeader(Path sourceFile);
+
+    /**
+     * Collects all imports that are banned within the given, previously read header of a
+     * java source file. For the same file,
+     * {@code matchHeader(sourceFile, readHeader(sourceFile), groups)} yields the same
+     * result as {@code matchFile(sourceFile, groups)}.
+     *
+     * @param sourceFile The path to the java source file the header belongs to.
+     * @param header The header of the source file.
+     * @param groups The groups of banned imports to check the file against.
+     * @return a {@link MatchedFile} holds information about the found matches. Returns an
+     *         empty optional if no matches were found.
+     */
+    Optional<MatchedFile> matchHeader(Path sourceFile, SourceFileHeader header,
+            BannedImportGroups groups);
 }
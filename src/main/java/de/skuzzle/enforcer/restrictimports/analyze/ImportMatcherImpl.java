@@ -11,76 +11,129 @@ import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import de.skuzzle.enforcer.restrictimports.analyze.SourceFileHeader.Statement;
+
 class ImportMatcherImpl implements ImportMatcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ImportMatcherImpl.class);
 
     private final LineSupplier supplier;
+    private final GroupSelectionCache groupSelectionCache;
+    private final AnalyzeStatistics statistics;
 
     ImportMatcherImpl(LineSupplier supplier) {
+        this(supplier, null);
+    }
+
+    ImportMatcherImpl(LineSupplier supplier, GroupSelectionCache groupSelectionCache) {
+        this(supplier, groupSelectionCache, new AnalyzeStatistics());
+    }
+
+    ImportMatcherImpl(LineSupplier supplier, GroupSelectionCache groupSelectionCache,
+            AnalyzeStatistics statistics) {
         this.supplier = supplier;
+        this.groupSelectionCache = groupSelectionCache;
+        this.statistics = statistics;
     }
 
     @Override
     public Optional<MatchedFile> matchFile(Path sourceFile, BannedImportGroups groups) {
         LOGGER.trace("Analyzing {} for banned imports", sourceFile);
+        return matchHeader(sourceFile, readHeader(sourceFile), groups);
+    }
 
-        final List<MatchedImport> matches = new ArrayList<>();
-        try (final Stream<String> lines = this.supplier.lines(sourceFile)) {
+    @Override
+    public SourceFileHeader readHeader(Path sourceFile) {
+        final List<Statement> statements = new ArrayList<>();
+        final long[] bytesScanned = { Long.MAX_VALUE };
+        try (final Stream<String> lines = this.supplier.lines(sourceFile,
+                bytesRead -> bytesScanned[0] = bytesRead)) {
 
             final Iterable<String> lineIt = lines.map(String::trim)::iterator;
 
             int row = 1;
-            final String javaFileName = getJavaFileName(sourceFile);
-            // select group default in case this file has no package statement
-            BannedImportGroup group = groups.selectGroupFor(javaFileName).orElse(null);
-
+            int linesScanned = 0;
             for (final Iterator<String> it = lineIt.iterator(); it.hasNext(); ++row) {
                 final String line = it.next();
+                ++linesScanned;
                 if (line.isEmpty()) {
                     continue;
                 } else if (isPackage(line)) {
-                    // package ...; statement
-
-                    // INVARIANT: our own package name occurs in the first non-empty line
-                    // of the java source file (after trimming leading comments)
-                    final String packageName = extractPackageName(line);
-                    final String fqcn = guessFQCN(packageName, javaFileName);
-
-                    final Optional<BannedImportGroup> groupMatch = groups.selectGroupFor(fqcn);
-                    if (!groupMatch.isPresent()) {
-                        return Optional.empty();
-                    }
-                    group = groupMatch.get();
-                    LOGGER.trace("    Selected group {} from fqcn {}", group, fqcn);
-                    continue;
-                }
-
-                if (!isImport(line)) {
+                    statements.add(Statement.packageStatement(row, extractPackageName(line)));
+                } else if (isImport(line)) {
+                    statements.add(Statement.importStatement(row, extractPackageName(line)));
+                } else {
                     // as we are skipping empty (and comment) lines, by the time we
                     // encounter a non-import line we can stop processing this file
-                    if (matches.isEmpty()) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(new MatchedFile(sourceFile, matches, group));
+                    break;
                 }
-
-                final String importName = extractPackageName(line);
-                final int lineNumber = row;
-                group.ifImportIsBanned(importName)
-                        .map(bannedImport -> new MatchedImport(lineNumber, importName, bannedImport))
-                        .ifPresent(matches::add);
-            }
-
-            if (matches.isEmpty()) {
-                return Optional.empty();
             }
-            return Optional.of(new MatchedFile(sourceFile, matches, group));
+            this.statistics.recordLinesScanned(linesScanned);
         } catch (final IOException e) {
             throw new RuntimeIOException(String.format(
                     "Encountered IOException while analyzing %s for banned imports",
                     sourceFile), e);
         }
+        return new SourceFileHeader(statements, bytesScanned[0]);
+    }
+
+    @Override
+    public Optional<MatchedFile> matchHeader(Path sourceFile, SourceFileHeader header,
+            BannedImportGroups groups) {
+        final List<MatchedImport> matches = new ArrayList<>();
+        final String javaFileName = getJavaFileName(sourceFile);
+        BannedImportGroup group = null;
+
+        for (final Statement statement : header.getStatements()) {
+            if (statement.isPackageStatement()) {
+                // INVARIANT: our own package name occurs in the first non-empty line
+                // of the java source file (after trimming leading comments)
+                final String packageName = statement.getName();
+                final QualifiedName fqcn = QualifiedName.parse(
+                        guessFQCN(packageName, javaFileName));
+
+                final Optional<BannedImportGroup> groupMatch = selectGroup(groups,
+                        packageName, fqcn);
+                if (!groupMatch.isPresent()) {
+                    return Optional.empty();
+                }
+                group = groupMatch.get();
+                LOGGER.trace("    Selected group {} from fqcn {}", group, fqcn);
+                continue;
+            }
+
+            if (group == null) {
+                // this file has no package statement, so the file name is the fqcn
+                final Optional<BannedImportGroup> groupMatch = selectGroup(groups, "",
+                        QualifiedName.parse(javaFileName));
+                if (!groupMatch.isPresent()) {
+                    return Optional.empty();
+                }
+                group = groupMatch.get();
+            }
+
+            final String importName = statement.getName();
+            final Optional<MatchedImport> match = group
+                    .ifImportIsBanned(QualifiedName.parse(importName))
+                    .map(bannedImport -> new MatchedImport(statement.getLine(), importName,
+                            bannedImport));
+            this.statistics.recordImportChecked(match.isPresent());
+            match.ifPresent(matches::add);
+        }
+
+        if (matches.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new MatchedFile(sourceFile, matches, group));
+    }
+
+    private Optional<BannedImportGroup> selectGroup(BannedImportGroups groups,
+            String packageName, QualifiedName fqcn) {
+        this.statistics.recordGroupLookup();
+        if (this.groupSelectionCache != null && this.groupSelectionCache.isFor(groups)) {
+            return this.groupSelectionCache.selectGroupFor(packageName, fqcn);
+        }
+        return groups.selectGroupFor(fqcn);
     }
 
     private String guessFQCN(String packageName, String javaFileName) {
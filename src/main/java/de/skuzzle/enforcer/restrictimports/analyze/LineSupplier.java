@@ -2,8 +2,24 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.function.LongConsumer;
 import java.util.stream.Stream;
 
 interface LineSupplier {
     Stream<String> lines(Path path) throws IOException;
+
+    /**
+     * Supplies the lines of the given file like {@link #lines(Path)} and reports the
+     * number of leading bytes that have been read from the file when the returned stream
+     * is closed. Only these bytes can have influenced the supplied lines.
+     *
+     * @param path The file.
+     * @param bytesRead Receives the number of bytes, or {@link Long#MAX_VALUE} if the
+     *            supplier can not tell.
+     * @return The lines.
+     * @throws IOException If the file can not be opened.
+     */
+    default Stream<String> lines(Path path, LongConsumer bytesRead) throws IOException {
+        return lines(path).onClose(() -> bytesRead.accept(Long.MAX_VALUE));
+    }
 }
@@ -0,0 +1,90 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the matched files of an analysis into an {@link AnalyzeResult} while retaining
+ * at most a fixed number of matched imports. Files are retained in the order of their
+ * paths, so the reported matches do not depend on the order in which files have been
+ * analyzed. Of all other files, only the number of matched imports per group is counted.
+ * Memory consumption is thus bounded regardless of the number of violations.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class MatchCollector implements MatchListener {
+
+    private static final Comparator<MatchedFile> BY_SOURCE_FILE = Comparator
+            .comparing(MatchedFile::getSourceFile);
+
+    private final BannedImportGroups groups;
+    private final int maxReportedViolations;
+
+    // Head is the retained file with the greatest path, which is evicted first
+    private final PriorityQueue<MatchedFile> retained = new PriorityQueue<>(
+            BY_SOURCE_FILE.reversed());
+    private int retainedViolations;
+    private final Map<BannedImportGroup, Integer> totalViolations = new HashMap<>();
+
+    MatchCollector(BannedImportGroups groups, int maxReportedViolations) {
+        this.groups = groups;
+        this.maxReportedViolations = maxReportedViolations;
+    }
+
+    @Override
+    public synchronized void fileMatched(MatchedFile matchedFile) {
+        final int violations = matchedFile.getMatchedImports().size();
+        totalViolations.merge(matchedFile.getMatchedBy(), violations, Integer::sum);
+
+        retained.add(matchedFile);
+        retainedViolations += violations;
+        // The greatest file can be dropped if the remaining files hold enough matches
+        while (!retained.isEmpty() && retainedViolations
+                - retained.peek().getMatchedImports().size() >= maxReportedViolations) {
+            retainedViolations -= retained.poll().getMatchedImports().size();
+        }
+    }
+
+    synchronized AnalyzeResult toResult() {
+        final List<MatchedFile> sorted = new ArrayList<>(retained);
+        sorted.sort(BY_SOURCE_FILE);
+
+        final List<MatchedFile> reported = new ArrayList<>(sorted.size());
+        final Map<BannedImportGroup, Integer> omitted = new HashMap<>(totalViolations);
+        int remaining = maxReportedViolations;
+        for (final MatchedFile matchedFile : sorted) {
+            if (remaining == 0) {
+                break;
+            }
+            final MatchedFile truncated = truncate(matchedFile, remaining);
+            final int violations = truncated.getMatchedImports().size();
+            omitted.merge(truncated.getMatchedBy(), -violations, Integer::sum);
+            reported.add(truncated);
+            remaining -= violations;
+        }
+
+        final AnalyzeResult.Builder result = AnalyzeResult.builder()
+                .withMatches(reported);
+        // Record omitted violations in the order in which the groups have been defined
+        groups.getGroups().stream()
+                .filter(omitted::containsKey)
+                .forEach(group -> result.withOmittedViolations(group, omitted.remove(group)));
+        return result.build();
+    }
+
+    private static MatchedFile truncate(MatchedFile matchedFile, int maxViolations) {
+        final List<MatchedImport> matchedImports = matchedFile.getMatchedImports();
+        if (matchedImports.size() <= maxViolations) {
+            return matchedFile;
+        }
+        return new MatchedFile(matchedFile.getSourceFile(),
+                new ArrayList<>(matchedImports.subList(0, maxViolations)),
+                matchedFile.getMatchedBy());
+    }
+}
@@ -0,0 +1,49 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+
+/**
+ * Receives the results of an analysis while it is running. This allows to display
+ * violations as soon as they have been found without holding the whole result in memory.
+ * <p>
+ * For each root directory, {@link #rootStarted(Path)} is called before any file of that
+ * root is reported and {@link #rootFinished(Path)} is called after all of its files have
+ * been analyzed. Root directories are analyzed one after another, even during parallel
+ * analysis. When {@link AnalyzerSettings#isFailFast() failing fast}, no events are fired
+ * for the roots following the first match.
+ * <p>
+ * During parallel analysis, {@link #fileMatched(MatchedFile)} is called concurrently from
+ * different worker threads and in no particular order. Implementations must then be thread
+ * safe.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ * @see SourceTreeAnalyzer#analyze(AnalyzerSettings, BannedImportGroups, MatchListener)
+ */
+public interface MatchListener {
+
+    /**
+     * Called before the files of the given root directory are analyzed.
+     *
+     * @param root The root directory.
+     */
+    default void rootStarted(Path root) {
+        // no-op by default
+    }
+
+    /**
+     * Called for every source file that contains at least one banned import.
+     *
+     * @param matchedFile The matches within the source file.
+     */
+    void fileMatched(MatchedFile matchedFile);
+
+    /**
+     * Called after all files of the given root directory have been analyzed.
+     *
+     * @param root The root directory.
+     */
+    default void rootFinished(Path root) {
+        // no-op by default
+    }
+}
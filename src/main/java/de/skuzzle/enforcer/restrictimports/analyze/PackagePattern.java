@@ -46,6 +46,19 @@ public interface PackagePattern extends Comparable<PackagePattern> {
      */
     boolean matches(String packageName);
 
+    /**
+     * Tests whether the given pre-parsed name is matched by this package pattern
+     * instance. Use this method instead of {@link #matches(String)} when testing the same
+     * name against multiple patterns.
+     *
+     * @param name The name to match against this pattern.
+     * @return Whether the name matches this pattern.
+     * @since 0.15.0
+     */
+    default boolean matches(QualifiedName name) {
+        return matches(name.toString());
+    }
+
     /**
      * Tests whether the given package pattern is matched by this package pattern
      * instance.
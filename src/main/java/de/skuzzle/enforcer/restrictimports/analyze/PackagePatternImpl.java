@@ -10,7 +10,12 @@ final class PackagePatternImpl implements PackagePattern {
     private final String[] parts;
     private final boolean staticc;
 
+    // parsed version of this pattern for matching it against other patterns which is
+    // derived from the parts and thus not part of equals and hashCode
+    private final QualifiedName name;
+
     public PackagePatternImpl(String s) {
+        this.name = QualifiedName.parse(s);
         this.staticc = s.startsWith(STATIC_PREFIX);
         if (staticc) {
             s = s.substring(STATIC_PREFIX.length());
@@ -62,28 +67,23 @@ final class PackagePatternImpl implements PackagePattern {
         if (packagePattern == this) {
             return true;
         } else if (packagePattern instanceof PackagePatternImpl) {
-            final PackagePatternImpl ppi = (PackagePatternImpl) packagePattern;
-            return matchesInternal(ppi.staticc, ppi.parts, this.staticc, this.parts);
+            return matches(((PackagePatternImpl) packagePattern).name);
         }
         return matches(packagePattern.toString());
     }
 
     @Override
     public boolean matches(String packageName) {
-        final boolean matchIsStatic = packageName.startsWith(STATIC_PREFIX);
-        if (matchIsStatic) {
-            packageName = packageName.substring(STATIC_PREFIX.length());
-        }
-        final String[] matchParts = packageName.split("\\.");
-        return matchesInternal(matchIsStatic, matchParts, this.staticc, this.parts);
+        return matches(QualifiedName.parse(packageName));
     }
 
-    private boolean matchesInternal(boolean matchIsStatic, String[] matchParts,
-            boolean partsIsStatic, String[] parts) {
-        if (matchIsStatic != partsIsStatic) {
+    @Override
+    public boolean matches(QualifiedName name) {
+        if (name.isStatic() != this.staticc) {
             return false;
         }
-        if (parts.length > matchParts.length) {
+        final int matchLength = name.getSegmentCount();
+        if (parts.length > matchLength) {
             // if the pattern is longer than the string to match, match cant be true
             return false;
         }
@@ -91,35 +91,34 @@ final class PackagePatternImpl implements PackagePattern {
         int patternIndex = 0;
         int matchIndex = 0;
         for (; patternIndex < parts.length
-                && matchIndex < matchParts.length; ++patternIndex) {
+                && matchIndex < matchLength; ++patternIndex) {
             final String patternPart = this.parts[patternIndex];
-            final String matchPart = matchParts[matchIndex];
 
             if ("**".equals(patternPart)) {
                 if (patternIndex + 1 < parts.length) {
                     final String nextPatternPart = parts[patternIndex + 1];
-                    while (matchIndex < matchParts.length
-                            && !matchParts(nextPatternPart, matchParts[matchIndex])) {
+                    while (matchIndex < matchLength
+                            && !matchParts(nextPatternPart, name, matchIndex)) {
                         ++matchIndex;
                     }
                 } else {
-                    matchIndex = matchParts.length;
+                    matchIndex = matchLength;
                 }
-            } else if (matchParts(patternPart, matchPart)) {
+            } else if (matchParts(patternPart, name, matchIndex)) {
                 ++matchIndex;
             } else {
                 return false;
             }
         }
 
-        return patternIndex == parts.length && matchIndex == matchParts.length;
+        return patternIndex == parts.length && matchIndex == matchLength;
     }
 
-    private static boolean matchParts(String patternPart, String matchPart) {
+    private static boolean matchParts(String patternPart, QualifiedName name, int index) {
         if ("*".equals(patternPart) || "**".equals(patternPart)) {
             return true;
         }
-        return patternPart.equals(matchPart);
+        return name.segmentEquals(index, patternPart);
     }
 
     @Override
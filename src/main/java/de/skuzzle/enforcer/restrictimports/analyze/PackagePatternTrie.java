@@ -0,0 +1,291 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Compiles a list of {@link PackagePattern PackagePatterns} into a trie of their
+ * segments. Literal segments become named edges while {@code *} and {@code **} become
+ * dedicated wildcard edges. Nodes are stored in flat lists and are referenced by their
+ * index. Matching a name is then a single walk over the name's segments instead of
+ * testing every pattern on its own.
+ * <p>
+ * The walk interprets {@code **} as "any number of segments" and thus yields a superset
+ * of the patterns that actually match. Every candidate is verified using
+ * {@link PackagePattern#matches(String)} so that the result is exactly the same as when
+ * testing each pattern separately.
+ *
+ * @author Simon Taddiken
+ */
+final class PackagePatternTrie {
+
+    private static final String STATIC_PREFIX = "static ";
+    private static final int NO_NODE = -1;
+    private static final int ROOT = 0;
+    private static final int STATIC_ROOT = 1;
+
+    private final List<PackagePattern> patterns;
+
+    // Nodes are identified by their index into the following lists
+    private final List<Map<String, Integer>> literals = new ArrayList<>();
+    private final IntList star = new IntList();
+    private final IntList starStar = new IntList();
+    private final List<BitSet> patternIndices = new ArrayList<>();
+    // The patterns ending in each node or any of its descendants
+    private final List<BitSet> subtreeIndices;
+
+    private PackagePatternTrie(List<PackagePattern> patterns) {
+        this.patterns = ImmutableList.copyOf(patterns);
+        newNode();
+        newNode();
+        for (int i = 0; i < this.patterns.size(); ++i) {
+            insert(i, this.patterns.get(i));
+        }
+        this.subtreeIndices = collectSubtreeIndices();
+    }
+
+    private List<BitSet> collectSubtreeIndices() {
+        final int nodeCount = this.patternIndices.size();
+        final List<BitSet> result = new ArrayList<>(nodeCount);
+        for (int node = 0; node < nodeCount; ++node) {
+            result.add((BitSet) this.patternIndices.get(node).clone());
+        }
+        // Children are always created after their parents, so visiting the nodes in
+        // reverse order completes every child before its parent
+        for (int node = nodeCount - 1; node >= 0; --node) {
+            final BitSet indices = result.get(node);
+            for (final int literal : this.literals.get(node).values()) {
+                indices.or(result.get(literal));
+            }
+            if (this.star.get(node) != NO_NODE) {
+                indices.or(result.get(this.star.get(node)));
+            }
+            if (this.starStar.get(node) != NO_NODE) {
+                indices.or(result.get(this.starStar.get(node)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the given patterns into a trie.
+     *
+     * @param patterns The patterns.
+     * @return The trie.
+     */
+    static PackagePatternTrie of(List<PackagePattern> patterns) {
+        return new PackagePatternTrie(patterns);
+    }
+
+    private int newNode() {
+        this.literals.add(new HashMap<>());
+        this.star.add(NO_NODE);
+        this.starStar.add(NO_NODE);
+        this.patternIndices.add(new BitSet());
+        return this.patternIndices.size() - 1;
+    }
+
+    private void insert(int index, PackagePattern pattern) {
+        String s = pattern.toString();
+        int node = ROOT;
+        if (pattern.isStatic()) {
+            s = s.substring(STATIC_PREFIX.length());
+            node = STATIC_ROOT;
+        }
+
+        for (final String part : s.split("\\.")) {
+            node = child(node, part);
+        }
+        this.patternIndices.get(node).set(index);
+    }
+
+    private int child(int node, String part) {
+        if ("*".equals(part)) {
+            if (this.star.get(node) == NO_NODE) {
+                this.star.set(node, newNode());
+            }
+            return this.star.get(node);
+        } else if ("**".equals(part)) {
+            if (this.starStar.get(node) == NO_NODE) {
+                this.starStar.set(node, newNode());
+            }
+            return this.starStar.get(node);
+        }
+        final Integer literal = this.literals.get(node).get(part);
+        if (literal != null) {
+            return literal;
+        }
+        final int child = newNode();
+        this.literals.get(node).put(part, child);
+        return child;
+    }
+
+    /**
+     * Tests whether any of the compiled patterns matches the given name.
+     *
+     * @param name The name to test.
+     * @return Whether any pattern matches.
+     */
+    boolean anyMatches(QualifiedName name) {
+        final BitSet candidates = candidatesFor(name);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (this.patterns.get(i).matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines all patterns which match the given name.
+     *
+     * @param name The name to test.
+     * @return The indices of the matching patterns, referring to the list of patterns
+     *         this trie has been created from.
+     */
+    BitSet matchingIndices(QualifiedName name) {
+        final BitSet candidates = candidatesFor(name);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (!this.patterns.get(i).matches(name)) {
+                candidates.clear(i);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Finds the most specific pattern (in terms of
+     * {@link PackagePattern#compareTo(PackagePattern)}) which matches the given name. If
+     * multiple matching patterns are equally specific, the one that has been declared
+     * first is returned.
+     *
+     * @param name The name to test.
+     * @return The most specific matching pattern or an empty optional if no pattern
+     *         matches.
+     */
+    Optional<PackagePattern> mostSpecificMatch(QualifiedName name) {
+        final BitSet candidates = candidatesFor(name);
+        PackagePattern result = null;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            final PackagePattern candidate = this.patterns.get(i);
+            if ((result == null || candidate.compareTo(result) > 0)
+                    && candidate.matches(name)) {
+                result = candidate;
+            }
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Determines the patterns which might match a name that starts with all segments of
+     * the given prefix and has at least one further segment. Like the other lookups, the
+     * walk yields a superset of the patterns that actually match such names. As the
+     * remaining segments are unknown, the candidates can not be verified though.
+     *
+     * @param prefix The leading segments of the names.
+     * @return The indices of the candidate patterns, referring to the list of patterns
+     *         this trie has been created from.
+     */
+    BitSet candidatesBelow(QualifiedName prefix) {
+        final BitSet candidates = new BitSet(this.patterns.size());
+        final int root = prefix.isStatic()
+                ? STATIC_ROOT
+                : ROOT;
+        collectBelow(root, prefix, 0, false, candidates);
+        return candidates;
+    }
+
+    private void collectBelow(int node, QualifiedName prefix, int index,
+            boolean afterStarStar, BitSet candidates) {
+        final int segmentCount = prefix.getSegmentCount();
+        if (index == segmentCount) {
+            // Patterns ending in this node can only consume further segments if they
+            // end with '**'. All patterns below this node might match the remainder
+            final BitSet below = (BitSet) this.subtreeIndices.get(node).clone();
+            if (!afterStarStar) {
+                below.andNot(this.patternIndices.get(node));
+            }
+            candidates.or(below);
+            return;
+        }
+        final Integer literal = this.literals.get(node).get(prefix.getSegment(index));
+        if (literal != null) {
+            collectBelow(literal, prefix, index + 1, false, candidates);
+        }
+        final int starNode = this.star.get(node);
+        if (starNode != NO_NODE) {
+            collectBelow(starNode, prefix, index + 1, false, candidates);
+        }
+        final int starStarNode = this.starStar.get(node);
+        if (starStarNode != NO_NODE) {
+            for (int i = index; i <= segmentCount; ++i) {
+                collectBelow(starStarNode, prefix, i, true, candidates);
+            }
+        }
+    }
+
+    private BitSet candidatesFor(QualifiedName name) {
+        final BitSet candidates = new BitSet(this.patterns.size());
+        final int root = name.isStatic()
+                ? STATIC_ROOT
+                : ROOT;
+        collect(root, name, 0, candidates);
+        return candidates;
+    }
+
+    private void collect(int node, QualifiedName name, int index, BitSet candidates) {
+        final int segmentCount = name.getSegmentCount();
+        if (index == segmentCount) {
+            candidates.or(this.patternIndices.get(node));
+        } else {
+            final Map<String, Integer> literalEdges = this.literals.get(node);
+            if (!literalEdges.isEmpty()) {
+                final Integer literal = literalEdges.get(name.getSegment(index));
+                if (literal != null) {
+                    collect(literal, name, index + 1, candidates);
+                }
+            }
+            final int starNode = this.star.get(node);
+            if (starNode != NO_NODE) {
+                collect(starNode, name, index + 1, candidates);
+            }
+        }
+
+        final int starStarNode = this.starStar.get(node);
+        if (starStarNode != NO_NODE) {
+            for (int i = index; i <= segmentCount; ++i) {
+                collect(starStarNode, name, i, candidates);
+            }
+        }
+    }
+
+    /**
+     * Minimal growable list of primitive ints.
+     */
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        private void add(int value) {
+            if (this.size == this.values.length) {
+                this.values = Arrays.copyOf(this.values, this.size * 2);
+            }
+            this.values[this.size++] = value;
+        }
+
+        private int get(int index) {
+            return this.values[index];
+        }
+
+        private void set(int index, int value) {
+            this.values[index] = value;
+        }
+    }
+}
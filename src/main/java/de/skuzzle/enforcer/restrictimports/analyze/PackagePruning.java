@@ -0,0 +1,181 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Skips directories of a source tree which can not contain any class that is subject to
+ * a {@link BannedImportGroup}. The path of a directory relative to its root is taken as
+ * a hint for the package of the classes within it. If no group's base package can match
+ * any class of that package or its sub packages, or if all such groups exclude them, the
+ * directory is not walked at all.
+ * <p>
+ * Whether the hint holds is verified against the package statement of every file that
+ * is still analyzed. If any of them is declared in a different package than its
+ * directory suggests, the directories which have been skipped within the same root are
+ * reported by {@link #getUnverifiedDirectories(Path)} and need to be analyzed anyway.
+ * <p>
+ * Instances are thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class PackagePruning {
+
+    private static final PackagePruning DISABLED = new PackagePruning(null,
+            Collections.emptyList());
+
+    private final BannedImportGroups groups;
+    private final List<Path> roots;
+    private final Map<Path, Queue<Path>> prunedDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, Path> packageMismatches = new ConcurrentHashMap<>();
+
+    private PackagePruning(BannedImportGroups groups, Collection<Path> roots) {
+        this.groups = groups;
+        // longest roots first, so nested roots take precedence when looking up the root
+        // of a file
+        this.roots = new ArrayList<>(roots);
+        this.roots.sort((a, b) -> Integer.compare(b.getNameCount(), a.getNameCount()));
+    }
+
+    /**
+     * Creates the pruning for the given settings.
+     *
+     * @param settings The settings.
+     * @param groups The groups which determine the relevant packages.
+     * @return The pruning. If pruning is not enabled in the settings, no directory is
+     *         skipped.
+     */
+    static PackagePruning create(AnalyzerSettings settings, BannedImportGroups groups) {
+        return settings.isPackagePruning()
+                ? new PackagePruning(groups, settings.getRootDirectories())
+                : DISABLED;
+    }
+
+    /**
+     * Whether the given directory can be skipped. Skipped directories are remembered for
+     * {@link #getUnverifiedDirectories(Path)}.
+     *
+     * @param root The root which is being walked.
+     * @param directory A directory within the root.
+     * @return Whether the directory does not need to be walked.
+     */
+    boolean canSkip(Path root, Path directory) {
+        if (this == DISABLED) {
+            return false;
+        }
+        final Optional<QualifiedName> packageName = packageNameOf(root.relativize(directory));
+        if (!packageName.isPresent() || groups.mayMatchBelow(packageName.get())) {
+            return false;
+        }
+        prunedDirectories.computeIfAbsent(root, key -> new ConcurrentLinkedQueue<>())
+                .add(directory);
+        return true;
+    }
+
+    /**
+     * Verifies that the given file is declared in the package its directory suggests.
+     *
+     * @param sourceFile The analyzed file.
+     * @param header The header of the file.
+     */
+    void verifyPackage(Path sourceFile, SourceFileHeader header) {
+        if (this == DISABLED) {
+            return;
+        }
+        final Optional<Path> root = roots.stream()
+                .filter(candidate -> sourceFile.startsWith(candidate)
+                        && !sourceFile.equals(candidate))
+                .findFirst();
+        if (!root.isPresent()) {
+            return;
+        }
+        final String declaredPackage = header.getStatements().stream()
+                .filter(SourceFileHeader.Statement::isPackageStatement)
+                .map(SourceFileHeader.Statement::getName)
+                .findFirst()
+                .orElse("");
+        final Path directory = root.get().relativize(sourceFile.getParent());
+        if (!declaredPackage.equals(toPackageName(directory))) {
+            packageMismatches.putIfAbsent(root.get(), sourceFile);
+        }
+    }
+
+    /**
+     * Returns a file of the given root whose package does not match its directory.
+     *
+     * @param root The root.
+     * @return The first such file that has been found.
+     */
+    Optional<Path> getPackageMismatch(Path root) {
+        return Optional.ofNullable(packageMismatches.get(root));
+    }
+
+    /**
+     * Returns the directories of the given root which have been skipped although the
+     * packages of that root's source files do not follow their directories. These
+     * directories still need to be analyzed.
+     *
+     * @param root The root.
+     * @return The skipped directories, or an empty list if skipping them has been valid.
+     */
+    List<Path> getUnverifiedDirectories(Path root) {
+        final Queue<Path> pruned = prunedDirectories.get(root);
+        if (pruned == null || !packageMismatches.containsKey(root)) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(pruned);
+    }
+
+    /**
+     * The total number of skipped directories.
+     *
+     * @return The number of directories.
+     */
+    int getPrunedDirectoryCount() {
+        return prunedDirectories.values().stream()
+                .mapToInt(Queue::size)
+                .sum();
+    }
+
+    private static Optional<QualifiedName> packageNameOf(Path relativeDirectory) {
+        // Directories whose names are no java identifiers can not denote a package, so
+        // the hint does not hold for any of their files
+        for (final Path segment : relativeDirectory) {
+            if (!isJavaIdentifier(segment.toString())) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(QualifiedName.parse(toPackageName(relativeDirectory)));
+    }
+
+    private static String toPackageName(Path relativeDirectory) {
+        final StringBuilder result = new StringBuilder();
+        for (final Path segment : relativeDirectory) {
+            if (result.length() > 0) {
+                result.append('.');
+            }
+            result.append(segment.toString());
+        }
+        return result.toString();
+    }
+
+    private static boolean isJavaIdentifier(String name) {
+        if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < name.length(); ++i) {
+            if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the version of this plugin. The version is taken from a resource which is
+ * filtered during the build. It is used to discard persisted data of other versions and
+ * to identify the tool within reports.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ */
+public final class PluginVersion {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PluginVersion.class);
+
+    static final String UNKNOWN = "unknown";
+    private static final String VERSION = readVersion();
+
+    private PluginVersion() {
+        // hidden
+    }
+
+    /**
+     * Returns the version of this plugin.
+     *
+     * @return The version or "unknown" if it can not be determined.
+     */
+    public static String get() {
+        return VERSION;
+    }
+
+    private static String readVersion() {
+        try (InputStream in = PluginVersion.class.getResourceAsStream("version.properties")) {
+            if (in == null) {
+                LOGGER.warn("Could not determine plugin version: version.properties is missing");
+                return UNKNOWN;
+            }
+            final Properties properties = new Properties();
+            properties.load(in);
+            return properties.getProperty("version", UNKNOWN);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not determine plugin version: {}", e.toString());
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * A pre-parsed import or full qualified class name. The name is split into its dot
+ * separated segments exactly once so that it can be tested against many
+ * {@link PackagePattern PackagePatterns} without repeatedly splitting it again. Segments
+ * are stored as offsets into the original String and are only materialized into
+ * separate String instances on demand.
+ * <p>
+ * Names starting with {@code static } are considered to be static imports. The prefix
+ * is not part of the segments.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ */
+public final class QualifiedName {
+
+    private static final String STATIC_PREFIX = "static ";
+    private static final int[] NO_BOUNDS = new int[0];
+
+    private final String name;
+    private final boolean staticc;
+    // start index of segment i at 2*i, end index (exclusive) at 2*i+1
+    private final int[] bounds;
+    private String[] segments;
+
+    private QualifiedName(String name, boolean staticc, int[] bounds) {
+        this.name = name;
+        this.staticc = staticc;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Parses the given name into its segments. Splitting behaves exactly like
+     * {@code String.split("\\.")}.
+     *
+     * @param name The name to parse.
+     * @return The parsed name.
+     */
+    public static QualifiedName parse(String name) {
+        checkArgument(name != null);
+        final boolean staticc = name.startsWith(STATIC_PREFIX);
+        final int offset = staticc
+                ? STATIC_PREFIX.length()
+                : 0;
+
+        if (offset == name.length()) {
+            // String.split yields the input itself if there is nothing to split
+            return new QualifiedName(name, staticc, new int[] { offset, offset });
+        }
+
+        int[] bounds = new int[8];
+        int count = 0;
+        int start = offset;
+        int dot;
+        while ((dot = name.indexOf('.', start)) >= 0) {
+            bounds = add(bounds, count++, start, dot);
+            start = dot + 1;
+        }
+        bounds = add(bounds, count++, start, name.length());
+
+        // String.split removes trailing empty segments
+        while (count > 0 && bounds[2 * count - 2] == bounds[2 * count - 1]) {
+            --count;
+        }
+        return new QualifiedName(name, staticc, count == 0
+                ? NO_BOUNDS
+                : Arrays.copyOf(bounds, 2 * count));
+    }
+
+    private static int[] add(int[] bounds, int index, int start, int end) {
+        final int[] result = 2 * index + 1 < bounds.length
+                ? bounds
+                : Arrays.copyOf(bounds, bounds.length * 2);
+        result[2 * index] = start;
+        result[2 * index + 1] = end;
+        return result;
+    }
+
+    /**
+     * Whether this name denotes a static import.
+     *
+     * @return Whether the name started with 'static '.
+     */
+    public boolean isStatic() {
+        return this.staticc;
+    }
+
+    /**
+     * The number of segments of this name.
+     *
+     * @return The number of segments.
+     */
+    public int getSegmentCount() {
+        return this.bounds.length / 2;
+    }
+
+    /**
+     * Returns the segment with the given index. The String instances are created lazily
+     * and cached.
+     *
+     * @param index The index of the segment.
+     * @return The segment.
+     */
+    public String getSegment(int index) {
+        if (this.segments == null) {
+            this.segments = new String[getSegmentCount()];
+        }
+        String segment = this.segments[index];
+        if (segment == null) {
+            segment = this.name.substring(this.bounds[2 * index], this.bounds[2 * index + 1]);
+            this.segments[index] = segment;
+        }
+        return segment;
+    }
+
+    /**
+     * Tests whether the segment with the given index equals the given String without
+     * materializing the segment.
+     *
+     * @param index The index of the segment.
+     * @param other The String to compare with.
+     * @return Whether the segment is equal to the given String.
+     */
+    public boolean segmentEquals(int index, String other) {
+        final int start = this.bounds[2 * index];
+        final int length = this.bounds[2 * index + 1] - start;
+        return length == other.length() && this.name.regionMatches(start, other, 0, length);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof QualifiedName
+                && this.name.equals(((QualifiedName) obj).name);
+    }
+
+    /**
+     * Returns the name this instance has been parsed from.
+     */
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
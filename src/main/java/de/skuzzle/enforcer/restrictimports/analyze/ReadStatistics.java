@@ -0,0 +1,62 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Thread safe accumulation of how many bytes have been read from the analyzed source
+ * files compared to their actual size.
+ *
+ * @author Simon Taddiken
+ */
+final class ReadStatistics {
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder fileSize = new LongAdder();
+
+    /**
+     * Records the statistics of the given channel after a file has been processed.
+     *
+     * @param channel The channel from which the file has been read.
+     * @throws IOException If the file's size can not be determined.
+     */
+    void record(ChunkedReadChannel channel) throws IOException {
+        record(channel.getBytesRead(), channel.size());
+    }
+
+    /**
+     * Records the statistics of a single processed file.
+     *
+     * @param bytesRead The number of bytes that have been read from the file.
+     * @param fileSize The size of the file.
+     */
+    void record(long bytesRead, long fileSize) {
+        this.files.increment();
+        this.bytesRead.add(bytesRead);
+        this.fileSize.add(fileSize);
+    }
+
+    long getFiles() {
+        return this.files.sum();
+    }
+
+    long getBytesRead() {
+        return this.bytesRead.sum();
+    }
+
+    long getFileSize() {
+        return this.fileSize.sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("files", getFiles())
+                .add("bytesRead", getBytesRead())
+                .add("fileSize", getFileSize())
+                .toString();
+    }
+}
@@ -0,0 +1,53 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Defines how the contents of source files are read during analysis. The strategy only
+ * affects performance, not the analysis result. Strategies other than {@link #STREAM}
+ * only apply to source file charsets in which every ASCII character is encoded as a
+ * single byte (like UTF-8 or ISO-8859-1). Files with other charsets are always read
+ * using {@link #STREAM}.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ */
+public enum ReadStrategy {
+    /**
+     * Read files in small but growing chunks into a newly allocated buffer.
+     */
+    STREAM,
+    /**
+     * Memory map files that are at least as large as the
+     * {@link AnalyzerSettings#getMappingThreshold() mapping threshold}. Smaller files are
+     * read like with {@link #STREAM}. If the file system does not support memory mapping,
+     * all files are read like with {@link #STREAM}.
+     */
+    MAPPED,
+    /**
+     * Read files in small but growing chunks into direct buffers which are reused for
+     * subsequently analyzed files.
+     */
+    POOLED_BUFFER;
+
+    /**
+     * Parses a strategy from its name. Parsing is case insensitive and accepts dashes in
+     * place of underscores, so that both {@code pooled-buffer} and {@code POOLED_BUFFER}
+     * denote {@link #POOLED_BUFFER}.
+     *
+     * @param name The name of the strategy.
+     * @return The strategy.
+     * @throws IllegalArgumentException If there is no strategy with the given name.
+     */
+    public static ReadStrategy fromString(String name) {
+        final String normalized = name.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        return Arrays.stream(values())
+                .filter(strategy -> strategy.name().equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Unknown read strategy '%s'. Valid strategies are: stream, mapped, "
+                                + "pooled-buffer",
+                        name)));
+    }
+}
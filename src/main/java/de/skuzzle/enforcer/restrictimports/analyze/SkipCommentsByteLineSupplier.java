@@ -0,0 +1,152 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Supplies lines but skips every encountered comment. In contrast to the
+ * {@link SkipCommentsLineSupplier} this implementation scans the raw bytes of the file
+ * using a {@link ByteLineScanner} instead of decoding the whole file through a Reader.
+ * It can thus only be used with charsets that are supported by the scanner.
+ * <p>
+ * How the bytes are obtained is determined by the {@link ReadStrategy}. When reading
+ * from a channel, files are read in small but growing chunks using a
+ * {@link ChunkedReadChannel}, so that, if the returned stream is not consumed entirely,
+ * only few bytes beyond the last consumed line are read. Memory mapped files are scanned
+ * in place and only the touched pages will actually be loaded.
+ *
+ * @author Simon Taddiken
+ */
+class SkipCommentsByteLineSupplier implements LineSupplier {
+
+    private static final int POOLED_BUFFER_SIZE = 8192;
+
+    private final Charset charset;
+    private final ReadStatistics statistics;
+    private final ReadStrategy readStrategy;
+    private final long mappingThreshold;
+    private final ByteBufferPool bufferPool;
+
+    public SkipCommentsByteLineSupplier(Charset charset) {
+        this(charset, new ReadStatistics());
+    }
+
+    public SkipCommentsByteLineSupplier(Charset charset, ReadStatistics statistics) {
+        this(charset, statistics, ReadStrategy.STREAM, Long.MAX_VALUE);
+    }
+
+    public SkipCommentsByteLineSupplier(Charset charset, ReadStatistics statistics,
+            ReadStrategy readStrategy, long mappingThreshold) {
+        Preconditions.checkArgument(ByteLineScanner.supports(charset),
+                "Charset %s is not supported for byte level scanning", charset);
+        this.charset = charset;
+        this.statistics = statistics;
+        this.readStrategy = readStrategy;
+        this.mappingThreshold = mappingThreshold;
+        this.bufferPool = readStrategy == ReadStrategy.POOLED_BUFFER
+                ? new ByteBufferPool(POOLED_BUFFER_SIZE)
+                : null;
+    }
+
+    @Override
+    public Stream<String> lines(Path path) throws IOException {
+        return lines(path, bytesRead -> {
+        });
+    }
+
+    @Override
+    public Stream<String> lines(Path path, LongConsumer bytesRead) throws IOException {
+        switch (readStrategy) {
+        case MAPPED:
+            return mappedLines(path, bytesRead);
+        case POOLED_BUFFER:
+            return pooledLines(path, bytesRead);
+        case STREAM:
+        default:
+            return streamedLines(Files.newByteChannel(path), bytesRead);
+        }
+    }
+
+    private Stream<String> streamedLines(SeekableByteChannel fileChannel,
+            LongConsumer bytesRead) {
+        final ChunkedReadChannel channel = new ChunkedReadChannel(fileChannel);
+        final ByteLineScanner scanner = new ByteLineScanner(channel, charset);
+        return stream(scanner).onClose(() -> close(channel, scanner, bytesRead));
+    }
+
+    private Stream<String> pooledLines(Path path, LongConsumer bytesRead)
+            throws IOException {
+        final ChunkedReadChannel channel = new ChunkedReadChannel(Files.newByteChannel(path));
+        final ByteBuffer buffer = bufferPool.acquire();
+        final ByteLineScanner scanner = new ByteLineScanner(channel, buffer, charset);
+        return stream(scanner).onClose(() -> {
+            try {
+                close(channel, scanner, bytesRead);
+            } finally {
+                bufferPool.release(buffer);
+            }
+        });
+    }
+
+    private Stream<String> mappedLines(Path path, LongConsumer bytesRead)
+            throws IOException {
+        final FileChannel fileChannel = FileChannel.open(path);
+        final MappedByteBuffer content;
+        try {
+            final long size = fileChannel.size();
+            if (size < mappingThreshold) {
+                return streamedLines(fileChannel, bytesRead);
+            }
+            content = fileChannel.map(MapMode.READ_ONLY, 0, size);
+        } catch (final UnsupportedOperationException e) {
+            // file system does not support memory mapping
+            return streamedLines(fileChannel, bytesRead);
+        } catch (final IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+
+        // the mapping stays valid after closing the channel
+        fileChannel.close();
+        final ByteLineScanner scanner = ByteLineScanner.scanning(content, charset);
+        return stream(scanner).onClose(() -> {
+            // the scanner consumes the buffer sequentially
+            statistics.record(content.position(), content.capacity());
+            bytesRead.accept(content.position());
+        });
+    }
+
+    private static Stream<String> stream(ByteLineScanner scanner) {
+        final Spliterator<String> spliterator = Spliterators.spliteratorUnknownSize(scanner,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    private void close(ChunkedReadChannel channel, ByteLineScanner scanner,
+            LongConsumer bytesRead) {
+        try {
+            try {
+                statistics.record(channel);
+                bytesRead.accept(channel.getBytesRead());
+            } finally {
+                scanner.close();
+            }
+        } catch (final IOException e) {
+            throw new RuntimeIOException("Error while closing file", e);
+        }
+    }
+}
@@ -3,39 +3,62 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.channels.Channels;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.function.LongConsumer;
 import java.util.stream.Stream;
 
 /**
  * Supplies lines but skips every encountered comment. Block comments that span multiple
  * lines will be replaced by the same amount of empty lines.
+ * <p>
+ * Files are read in small but growing chunks using a {@link ChunkedReadChannel}, so
+ * that, if the returned stream is not consumed entirely, only few bytes beyond the last
+ * consumed line are read.
  *
  * @author Simon Taddiken
  */
 class SkipCommentsLineSupplier implements LineSupplier {
 
     private final Charset charset;
-    private final int commentLineBufferSize;
+    private final ReadStatistics statistics;
 
-    public SkipCommentsLineSupplier(Charset charset, int commentLineBufferSize) {
+    public SkipCommentsLineSupplier(Charset charset) {
+        this(charset, new ReadStatistics());
+    }
+
+    public SkipCommentsLineSupplier(Charset charset, ReadStatistics statistics) {
         this.charset = charset;
-        this.commentLineBufferSize = commentLineBufferSize;
+        this.statistics = statistics;
     }
 
     @Override
     public Stream<String> lines(Path path) throws IOException {
-        final Reader fromFile = Files.newBufferedReader(path, charset);
-        final Reader skipComments = new TransientCommentReader(fromFile, true, commentLineBufferSize);
+        return lines(path, bytesRead -> {
+        });
+    }
+
+    @Override
+    public Stream<String> lines(Path path, LongConsumer bytesRead) throws IOException {
+        final ChunkedReadChannel channel = new ChunkedReadChannel(Files.newByteChannel(path));
+        // Files.newBufferedReader would always try to fill its whole buffer
+        final Reader fromFile = Channels.newReader(channel, charset.newDecoder(), -1);
+        final Reader skipComments = new SkipCommentsReader(fromFile);
 
         final BufferedReader lineReader = new BufferedReader(skipComments);
-        return lineReader.lines().onClose(() -> close(lineReader));
+        return lineReader.lines().onClose(() -> close(channel, lineReader, bytesRead));
     }
 
-    private void close(Reader reader) {
+    private void close(ChunkedReadChannel channel, Reader reader, LongConsumer bytesRead) {
         try {
-            reader.close();
+            try {
+                statistics.record(channel);
+                bytesRead.accept(channel.getBytesRead());
+            } finally {
+                reader.close();
+            }
         } catch (final IOException e) {
             throw new RuntimeIOException("Error while closing reader", e);
         }
@@ -0,0 +1,217 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A filtering Reader which hides all comments in the input from its user. This
+ * implementation reads its input in chunks and strips comments from a whole chunk at once
+ * using a small state machine. It does not synchronize and is thus not safe to be used by
+ * multiple threads.
+ * <p>
+ * Every line break within a block comment is replaced by a single LF, so the output
+ * contains the same number of lines as the input. As line breaks are emitted right away,
+ * block comments of arbitrary length can be skipped without buffering. All common line
+ * endings are supported: CR (Mac), LF (Unix) and CRLF (Windows). Line breaks outside of
+ * block comments are passed through unchanged. Comment delimiters within string and
+ * character literals are not interpreted.
+ *
+ * @author Simon Taddiken
+ */
+final class SkipCommentsReader extends Reader {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int CODE = 0;
+    private static final int SLASH = 1;
+    private static final int LINE_COMMENT = 2;
+    private static final int BLOCK_COMMENT = 3;
+    private static final int BLOCK_COMMENT_STAR = 4;
+    private static final int STRING_LITERAL = 5;
+    private static final int STRING_LITERAL_ESCAPE = 6;
+    private static final int CHAR_LITERAL = 7;
+    private static final int CHAR_LITERAL_ESCAPE = 8;
+
+    private final Reader in;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private boolean eos;
+
+    private int state = CODE;
+    // whether the last character within a block comment was a CR
+    private boolean commentCR;
+
+    SkipCommentsReader(Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    SkipCommentsReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buffer = new char[bufferSize];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+
+        final char[] buf = this.buffer;
+        final int end = off + len;
+        int out = off;
+        int pos = this.position;
+        int state = this.state;
+
+        while (out < end) {
+            if (pos == this.limit) {
+                if (out > off) {
+                    // don't block for more input if we already have something to return
+                    break;
+                }
+                final boolean filled = fillBuffer();
+                pos = this.position;
+                if (!filled) {
+                    if (state == SLASH) {
+                        cbuf[out++] = '/';
+                        state = CODE;
+                    }
+                    break;
+                }
+            }
+
+            final char c = buf[pos];
+            switch (state) {
+            case CODE:
+                ++pos;
+                if (c == '/') {
+                    state = SLASH;
+                    continue;
+                } else if (c == '"') {
+                    state = STRING_LITERAL;
+                } else if (c == '\'') {
+                    state = CHAR_LITERAL;
+                }
+                cbuf[out++] = c;
+                break;
+
+            case SLASH:
+                if (c == '*') {
+                    ++pos;
+                    state = BLOCK_COMMENT;
+                    this.commentCR = false;
+                } else if (c == '/') {
+                    ++pos;
+                    state = LINE_COMMENT;
+                } else {
+                    // just a single slash, followed by something else which will be
+                    // processed in the next iteration
+                    cbuf[out++] = '/';
+                    state = CODE;
+                }
+                break;
+
+            case LINE_COMMENT:
+                if (c == '\r' || c == '\n') {
+                    // the line break is not part of the comment
+                    state = CODE;
+                } else {
+                    ++pos;
+                }
+                break;
+
+            case BLOCK_COMMENT:
+            case BLOCK_COMMENT_STAR:
+                ++pos;
+                if (c == '/' && state == BLOCK_COMMENT_STAR) {
+                    state = CODE;
+                    continue;
+                } else if (c == '*') {
+                    state = BLOCK_COMMENT_STAR;
+                } else {
+                    state = BLOCK_COMMENT;
+                }
+
+                if (c == '\r') {
+                    cbuf[out++] = '\n';
+                    this.commentCR = true;
+                } else if (c == '\n') {
+                    if (!this.commentCR) {
+                        cbuf[out++] = '\n';
+                    }
+                    this.commentCR = false;
+                } else {
+                    this.commentCR = false;
+                }
+                break;
+
+            case STRING_LITERAL:
+            case CHAR_LITERAL:
+                ++pos;
+                if (c == '\r' || c == '\n') {
+                    // unterminated literal
+                    state = CODE;
+                } else if (c == '\\') {
+                    state = state == STRING_LITERAL
+                            ? STRING_LITERAL_ESCAPE
+                            : CHAR_LITERAL_ESCAPE;
+                } else if (c == '"' && state == STRING_LITERAL
+                        || c == '\'' && state == CHAR_LITERAL) {
+                    state = CODE;
+                }
+                cbuf[out++] = c;
+                break;
+
+            case STRING_LITERAL_ESCAPE:
+            case CHAR_LITERAL_ESCAPE:
+                ++pos;
+                if (c == '\r' || c == '\n') {
+                    state = CODE;
+                } else {
+                    state = state == STRING_LITERAL_ESCAPE
+                            ? STRING_LITERAL
+                            : CHAR_LITERAL;
+                }
+                cbuf[out++] = c;
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown state: " + state);
+            }
+        }
+
+        this.position = pos;
+        this.state = state;
+        final int read = out - off;
+        return read == 0 && this.eos
+                ? -1
+                : read;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (this.eos) {
+            return false;
+        }
+        int read;
+        do {
+            read = this.in.read(this.buffer, 0, this.buffer.length);
+        } while (read == 0);
+
+        if (read < 0) {
+            this.eos = true;
+            this.position = 0;
+            this.limit = 0;
+            return false;
+        }
+        this.position = 0;
+        this.limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
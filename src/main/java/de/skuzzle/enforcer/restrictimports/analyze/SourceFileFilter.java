@@ -0,0 +1,159 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Decides which files of a source root are analyzed and which directories need not be
+ * descended into. The decision is made from the attributes that are supplied while
+ * walking the tree, so no additional file system access is needed for regular files.
+ * <p>
+ * Include and exclude patterns are globs as understood by
+ * {@link FileSystem#getPathMatcher(String)} which are matched against the path of a file
+ * relative to its root. Like with Maven's include and exclude patterns, a leading
+ * <code>**&#47;</code> also matches files directly within the root. A directory is skipped
+ * entirely if an exclude pattern that ends with <code>&#47;**</code> matches it or if it
+ * is skipped by the optional directory pruning.
+ *
+ * @author Simon Taddiken
+ */
+final class SourceFileFilter {
+
+    private static final String JAVA_SUFFIX = ".java";
+    private static final String ANY_DIRECTORY = "**/";
+    private static final String ANY_CONTENT = "/**";
+
+    private final Path root;
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final List<PathMatcher> excludedDirectories;
+    private final Predicate<Path> directoryPruning;
+
+    private SourceFileFilter(Path root, List<PathMatcher> includes,
+            List<PathMatcher> excludes, List<PathMatcher> excludedDirectories,
+            Predicate<Path> directoryPruning) {
+        this.root = root;
+        this.includes = includes;
+        this.excludes = excludes;
+        this.excludedDirectories = excludedDirectories;
+        this.directoryPruning = directoryPruning;
+    }
+
+    /**
+     * Creates the filter for the given root directory.
+     *
+     * @param root The root directory against which patterns are matched.
+     * @param includePatterns If not empty, only files matching any of these patterns are
+     *            analyzed.
+     * @param excludePatterns Files matching any of these patterns are not analyzed.
+     * @return The filter.
+     */
+    static SourceFileFilter forRoot(Path root, Collection<String> includePatterns,
+            Collection<String> excludePatterns) {
+        return forRoot(root, includePatterns, excludePatterns, directory -> false);
+    }
+
+    /**
+     * Creates the filter for the given root directory which additionally skips all
+     * directories accepted by the given predicate. The predicate is only consulted for
+     * directories which are not already excluded by a pattern.
+     *
+     * @param root The root directory against which patterns are matched.
+     * @param includePatterns If not empty, only files matching any of these patterns are
+     *            analyzed.
+     * @param excludePatterns Files matching any of these patterns are not analyzed.
+     * @param directoryPruning Tests whether a directory below the root can be skipped.
+     * @return The filter.
+     */
+    static SourceFileFilter forRoot(Path root, Collection<String> includePatterns,
+            Collection<String> excludePatterns, Predicate<Path> directoryPruning) {
+        final FileSystem fileSystem = root.getFileSystem();
+        final List<PathMatcher> includes = new ArrayList<>();
+        for (final String pattern : includePatterns) {
+            addMatchers(fileSystem, pattern, includes);
+        }
+        final List<PathMatcher> excludes = new ArrayList<>();
+        final List<PathMatcher> excludedDirectories = new ArrayList<>();
+        for (final String pattern : excludePatterns) {
+            addMatchers(fileSystem, pattern, excludes);
+            if (pattern.endsWith(ANY_CONTENT)) {
+                addMatchers(fileSystem,
+                        pattern.substring(0, pattern.length() - ANY_CONTENT.length()),
+                        excludedDirectories);
+            }
+        }
+        return new SourceFileFilter(root, includes, excludes, excludedDirectories,
+                directoryPruning);
+    }
+
+    private static void addMatchers(FileSystem fileSystem, String pattern,
+            List<PathMatcher> matchers) {
+        matchers.add(fileSystem.getPathMatcher("glob:" + pattern));
+        if (pattern.startsWith(ANY_DIRECTORY)) {
+            matchers.add(fileSystem.getPathMatcher("glob:"
+                    + pattern.substring(ANY_DIRECTORY.length())));
+        }
+    }
+
+    /**
+     * Whether the given file should be analyzed.
+     *
+     * @param file The file.
+     * @param attributes The attributes of the file, not following symbolic links.
+     * @return Whether the file is a java source file which is not excluded.
+     * @throws IOException If the target of a symbolic link can not be determined.
+     */
+    boolean isSourceFile(Path file, BasicFileAttributes attributes) throws IOException {
+        if (attributes.isDirectory() || !hasJavaSuffix(file)) {
+            return false;
+        } else if (attributes.isSymbolicLink() && Files.isDirectory(file)) {
+            return false;
+        } else if (includes.isEmpty() && excludes.isEmpty()) {
+            return true;
+        }
+        final Path relativePath = root.relativize(file);
+        return (includes.isEmpty() || matchesAny(includes, relativePath))
+                && !matchesAny(excludes, relativePath);
+    }
+
+    /**
+     * Whether the given directory and everything below it is excluded.
+     *
+     * @param directory The directory.
+     * @return Whether the walk can skip the directory.
+     */
+    boolean isExcludedDirectory(Path directory) {
+        if (directory.equals(root)) {
+            return false;
+        } else if (!excludedDirectories.isEmpty()
+                && matchesAny(excludedDirectories, root.relativize(directory))) {
+            return true;
+        }
+        return directoryPruning.test(directory);
+    }
+
+    private static boolean matchesAny(List<PathMatcher> matchers, Path relativePath) {
+        for (final PathMatcher matcher : matchers) {
+            if (matcher.matches(relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJavaSuffix(Path file) {
+        // The string representation is cached by the default file system. The suffix of
+        // the whole path equals the suffix of the file name because it has no separator
+        final String path = file.toString();
+        return path.regionMatches(true, path.length() - JAVA_SUFFIX.length(), JAVA_SUFFIX, 0,
+                JAVA_SUFFIX.length());
+    }
+}
@@ -0,0 +1,128 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * The package and import statements at the beginning of a java source file in the order
+ * they appear in the file. The header is independent of any {@link BannedImportGroups}
+ * and can thus be cached and matched against different groups.
+ *
+ * @author Simon Taddiken
+ */
+final class SourceFileHeader {
+
+    private final List<Statement> statements;
+    // How the header has been obtained is not part of equals and hashCode
+    private final long bytesScanned;
+
+    SourceFileHeader(List<Statement> statements) {
+        this(statements, Long.MAX_VALUE);
+    }
+
+    SourceFileHeader(List<Statement> statements, long bytesScanned) {
+        this.statements = ImmutableList.copyOf(statements);
+        this.bytesScanned = bytesScanned;
+    }
+
+    List<Statement> getStatements() {
+        return this.statements;
+    }
+
+    /**
+     * The number of leading bytes of the source file from which this header has been
+     * read. Changes to the file beyond these bytes can not affect the header.
+     *
+     * @return The number of bytes or {@link Long#MAX_VALUE} if the header might depend
+     *         on the whole file.
+     */
+    long getBytesScanned() {
+        return this.bytesScanned;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statements);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof SourceFileHeader
+                && Objects.equals(statements, ((SourceFileHeader) obj).statements);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("statements", statements)
+                .toString();
+    }
+
+    /**
+     * A single package or import statement.
+     *
+     * @author Simon Taddiken
+     */
+    static final class Statement {
+        private final int line;
+        private final boolean packageStatement;
+        private final String name;
+
+        private Statement(int line, boolean packageStatement, String name) {
+            this.line = line;
+            this.packageStatement = packageStatement;
+            this.name = name;
+        }
+
+        static Statement packageStatement(int line, String packageName) {
+            return new Statement(line, true, packageName);
+        }
+
+        static Statement importStatement(int line, String importName) {
+            return new Statement(line, false, importName);
+        }
+
+        int getLine() {
+            return this.line;
+        }
+
+        boolean isPackageStatement() {
+            return this.packageStatement;
+        }
+
+        /**
+         * The declared package name or the imported name, including a possible 'static '
+         * prefix.
+         *
+         * @return The name.
+         */
+        String getName() {
+            return this.name;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(line, packageStatement, name);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || obj instanceof Statement
+                    && line == ((Statement) obj).line
+                    && packageStatement == ((Statement) obj).packageStatement
+                    && Objects.equals(name, ((Statement) obj).name);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("line", line)
+                    .add("packageStatement", packageStatement)
+                    .add("name", name)
+                    .toString();
+        }
+    }
+}
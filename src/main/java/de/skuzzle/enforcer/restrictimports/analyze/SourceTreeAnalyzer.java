@@ -25,4 +25,18 @@ public interface SourceTreeAnalyzer {
      * @return The result of analyzing the given source files.
      */
     AnalyzeResult analyze(AnalyzerSettings settings, BannedImportGroups groups);
+
+    /**
+     * Analyzes all java classes found recursively in the given root directories for
+     * matches of banned imports and passes each match to the given listener as soon as it
+     * has been found. Unlike {@link #analyze(AnalyzerSettings, BannedImportGroups)}, the
+     * matches are not retained by the analyzer. The
+     * {@link AnalyzerSettings#getMaxReportedViolations() violation limit} is not applied.
+     *
+     * @param settings Context information for performing the analysis.
+     * @param groups The banned imports.
+     * @param listener Receives the matches.
+     * @since 0.15.0
+     */
+    void analyze(AnalyzerSettings settings, BannedImportGroups groups, MatchListener listener);
 }
@@ -1,58 +1,273 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 final class SourceTreeAnalyzerImpl implements SourceTreeAnalyzer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourceTreeAnalyzerImpl.class);
+
     @Override
     public AnalyzeResult analyze(AnalyzerSettings settings, BannedImportGroups groups) {
-        final LineSupplier lineSupplier = new SkipCommentsLineSupplier(
-                settings.getSourceFileCharset(),
-                settings.getCommentLineBufferSize());
+        // Files are not guaranteed to be listed in a stable order and parallel analysis
+        // finishes in arbitrary order. The collector sorts the matches to make the result
+        // reproducible
+        final MatchCollector collector = new MatchCollector(groups,
+                settings.getMaxReportedViolations());
+        analyze(settings, groups, collector);
+        return collector.toResult();
+    }
+
+    @Override
+    public void analyze(AnalyzerSettings settings, BannedImportGroups groups,
+            MatchListener listener) {
+        final ReadStatistics statistics = new ReadStatistics();
+        final AnalyzeStatistics analyzeStatistics = new AnalyzeStatistics();
+        final LineSupplier lineSupplier = createLineSupplier(settings, statistics);
+
+        final GroupSelectionCache groupSelectionCache = new GroupSelectionCache(groups);
 
         // TODO: importMatcher should be injected rather than being created here
-        final ImportMatcher importMatcher = new ImportMatcherImpl(lineSupplier);
+        final ImportMatcher importMatcher = new ImportMatcherImpl(lineSupplier,
+                groupSelectionCache, analyzeStatistics);
+
+        final Optional<ImportIndexes> importIndexes = settings.getCacheDirectory()
+                .map(directory -> ImportIndexes.open(directory, settings.getRootDirectories(),
+                        settings.getSourceFileCharset()));
+        final Function<Path, SourceFileHeader> headerReader = importIndexes
+                .<Function<Path, SourceFileHeader>> map(indexes -> sourceFile -> indexes
+                        .getHeader(sourceFile, importMatcher::readHeader))
+                .orElse(importMatcher::readHeader);
+        final PackagePruning pruning = PackagePruning.create(settings, groups);
+        final Function<Path, Optional<MatchedFile>> fileMatcher = sourceFile -> {
+            final long start = System.nanoTime();
+            final SourceFileHeader header = headerReader.apply(sourceFile);
+            final long read = System.nanoTime();
+            analyzeStatistics.recordRead(read - start);
+            pruning.verifyPackage(sourceFile, header);
+            final Optional<MatchedFile> matchedFile = importMatcher.matchHeader(sourceFile,
+                    header, groups);
+            analyzeStatistics.recordMatch(System.nanoTime() - read);
+            return matchedFile;
+        };
+
+        if (settings.getParallelism() > 1) {
+            analyzeParallel(settings, pruning, fileMatcher, listener, analyzeStatistics);
+        } else {
+            analyzeSequential(settings, pruning, fileMatcher, listener, analyzeStatistics);
+        }
+
+        LOGGER.debug("Walked {} source files in {} ms", analyzeStatistics.getFilesWalked(),
+                analyzeStatistics.getWalkMillis());
+        if (settings.isPackagePruning()) {
+            LOGGER.debug("Skipped {} directories without relevant packages",
+                    pruning.getPrunedDirectoryCount());
+        }
+        LOGGER.debug("Obtained {} file headers in {} ms, read {} of {} bytes from {} source "
+                + "files and scanned {} lines", analyzeStatistics.getHeadersRead(),
+                analyzeStatistics.getReadMillis(), statistics.getBytesRead(),
+                statistics.getFileSize(), statistics.getFiles(),
+                analyzeStatistics.getLinesScanned());
+        LOGGER.debug("Matched {} of {} imports with {} group lookups in {} ms",
+                analyzeStatistics.getImportsMatched(), analyzeStatistics.getImportsChecked(),
+                analyzeStatistics.getGroupLookups(), analyzeStatistics.getMatchMillis());
+        logGroupSelectionCache(groupSelectionCache);
+        importIndexes.ifPresent(indexes -> {
+            LOGGER.debug("Import index: {} unchanged and {} new or changed source files",
+                    indexes.getHits(), indexes.getMisses());
+            indexes.save();
+        });
+    }
+
+    private void logGroupSelectionCache(GroupSelectionCache groupSelectionCache) {
+        if (!groupSelectionCache.isEnabled()) {
+            LOGGER.debug("Group selection cache disabled because base packages depend on "
+                    + "class names");
+            return;
+        }
+        final long hits = groupSelectionCache.getHits();
+        final long lookups = hits + groupSelectionCache.getMisses();
+        LOGGER.debug("Group selection cache: {} hits in {} lookups ({}%)", hits, lookups,
+                lookups == 0 ? 0 : hits * 100 / lookups);
+    }
 
-        final List<MatchedFile> matchedFiles = new ArrayList<>();
+    private LineSupplier createLineSupplier(AnalyzerSettings settings,
+            ReadStatistics statistics) {
+        final Charset charset = settings.getSourceFileCharset();
+        if (ByteLineScanner.supports(charset)) {
+            return new SkipCommentsByteLineSupplier(charset, statistics,
+                    settings.getReadStrategy(), settings.getMappingThreshold());
+        }
+        // Charsets like UTF-16 can not be scanned without decoding
+        return new SkipCommentsLineSupplier(charset, statistics);
+    }
 
+    private void analyzeSequential(AnalyzerSettings settings, PackagePruning pruning,
+            Function<Path, Optional<MatchedFile>> fileMatcher, MatchListener listener,
+            AnalyzeStatistics analyzeStatistics) {
         final Iterable<Path> rootsIterable = settings.getRootDirectories();
         for (final Path root : rootsIterable) {
-            listFiles(root, this::isJavaSourceFile)
-                    .map(sourceFile -> importMatcher.matchFile(sourceFile, groups))
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(matchedFiles::add);
+            listener.rootStarted(root);
+            final SourceFileFilter filter = createFilter(settings, root,
+                    directory -> pruning.canSkip(root, directory));
+            boolean matchFound = walkSequential(root, filter, settings, fileMatcher,
+                    listener, analyzeStatistics);
+            if (!matchFound) {
+                final SourceFileFilter unprunedFilter = createFilter(settings, root,
+                        directory -> false);
+                for (final Path directory : unverifiedDirectories(pruning, root)) {
+                    matchFound = walkSequential(directory, unprunedFilter, settings,
+                            fileMatcher, listener, analyzeStatistics);
+                    if (matchFound) {
+                        break;
+                    }
+                }
+            }
+            listener.rootFinished(root);
+            if (matchFound) {
+                break;
+            }
         }
+    }
 
-        return AnalyzeResult.builder()
-                .withMatches(matchedFiles)
-                .build();
+    private boolean walkSequential(Path start, SourceFileFilter filter,
+            AnalyzerSettings settings, Function<Path, Optional<MatchedFile>> fileMatcher,
+            MatchListener listener, AnalyzeStatistics analyzeStatistics) {
+        final SequentialVisitor visitor = new SequentialVisitor(filter, fileMatcher, listener,
+                settings.isFailFast());
+        final long startTime = System.nanoTime();
+        walk(start, visitor);
+        analyzeStatistics.recordWalk(visitor.files,
+                System.nanoTime() - startTime - visitor.analyzeNanos);
+        return visitor.matchFound;
     }
 
-    private Stream<Path> listFiles(Path root, Predicate<Path> filter) {
-        try {
-            if (!Files.exists(root)) {
-                return Stream.empty();
+    private void analyzeParallel(AnalyzerSettings settings, PackagePruning pruning,
+            Function<Path, Optional<MatchedFile>> fileMatcher, MatchListener listener,
+            AnalyzeStatistics analyzeStatistics) {
+        final ForkJoinPool pool = WorkerPools.forParallelism(settings.getParallelism());
+        final ConcurrentSourceTreeWalker walker = new ConcurrentSourceTreeWalker(pool,
+                analyzeStatistics);
+        final AtomicBoolean matchFound = new AtomicBoolean();
+        final Consumer<Path> analyzeFile = sourceFile -> fileMatcher.apply(sourceFile)
+                .ifPresent(matchedFile -> {
+                    if (!settings.isFailFast()) {
+                        listener.fileMatched(matchedFile);
+                    } else if (matchFound.compareAndSet(false, true)) {
+                        // Only report the first match and stop all workers
+                        walker.stop();
+                        listener.fileMatched(matchedFile);
+                    }
+                });
+
+        for (final Path root : settings.getRootDirectories()) {
+            listener.rootStarted(root);
+            walker.walk(root, createFilter(settings, root,
+                    directory -> pruning.canSkip(root, directory)), analyzeFile);
+            if (!matchFound.get()) {
+                final SourceFileFilter unprunedFilter = createFilter(settings, root,
+                        directory -> false);
+                for (final Path directory : unverifiedDirectories(pruning, root)) {
+                    walker.walk(directory, unprunedFilter, analyzeFile);
+                }
             }
-            return Files.find(root, Integer.MAX_VALUE, (path, bfa) -> filter.test(path));
-        } catch (final IOException e) {
-            throw new RuntimeIOException("Encountered IOException while listing files of " + root, e);
+            listener.rootFinished(root);
+            if (matchFound.get()) {
+                break;
+            }
+        }
+    }
+
+    private List<Path> unverifiedDirectories(PackagePruning pruning, Path root) {
+        final List<Path> directories = pruning.getUnverifiedDirectories(root);
+        if (!directories.isEmpty()) {
+            LOGGER.info("{} is not declared in the package its directory suggests. "
+                    + "Analyzing {} skipped directories of {} anyway",
+                    pruning.getPackageMismatch(root).orElse(root), directories.size(), root);
         }
+        return directories;
     }
 
-    private boolean isFile(Path path) {
-        return !Files.isDirectory(path);
+    private SourceFileFilter createFilter(AnalyzerSettings settings, Path root,
+            Predicate<Path> directoryPruning) {
+        return SourceFileFilter.forRoot(root, settings.getSourceIncludes(),
+                settings.getSourceExcludes(), directoryPruning);
     }
 
-    private boolean isJavaSourceFile(Path path) {
-        return isFile(path) && path.getFileName().toString().toLowerCase().endsWith(".java");
+    private void walk(Path root, FileVisitor<Path> visitor) {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(root, visitor);
+        } catch (final IOException e) {
+            throw new RuntimeIOException("Encountered IOException while listing files of " + root, e);
+        }
     }
 
+    /**
+     * Analyzes the source files of a single root while walking it. The time spent in
+     * analyzing is recorded so that it can be subtracted from the walk time.
+     */
+    private static final class SequentialVisitor extends SimpleFileVisitor<Path> {
+
+        private final SourceFileFilter filter;
+        private final Function<Path, Optional<MatchedFile>> fileMatcher;
+        private final MatchListener listener;
+        private final boolean failFast;
+
+        private int files;
+        private long analyzeNanos;
+        private boolean matchFound;
+
+        private SequentialVisitor(SourceFileFilter filter,
+                Function<Path, Optional<MatchedFile>> fileMatcher, MatchListener listener,
+                boolean failFast) {
+            this.filter = filter;
+            this.fileMatcher = fileMatcher;
+            this.listener = listener;
+            this.failFast = failFast;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            return filter.isExcludedDirectory(dir)
+                    ? FileVisitResult.SKIP_SUBTREE
+                    : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                throws IOException {
+            if (!filter.isSourceFile(file, attrs)) {
+                return FileVisitResult.CONTINUE;
+            }
+            ++files;
+            final long start = System.nanoTime();
+            final Optional<MatchedFile> matchedFile = fileMatcher.apply(file);
+            matchedFile.ifPresent(listener::fileMatched);
+            analyzeNanos += System.nanoTime() - start;
+            if (matchedFile.isPresent() && failFast) {
+                matchFound = true;
+                return FileVisitResult.TERMINATE;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
 }
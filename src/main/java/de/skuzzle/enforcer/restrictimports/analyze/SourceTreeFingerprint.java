@@ -0,0 +1,99 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Computes a fingerprint of the source files which are analyzed for given
+ * {@link AnalyzerSettings}. The fingerprint is derived from the path, size and last
+ * modification time of every source file that is accepted by the settings' includes and
+ * excludes. It is taken from the attributes that are supplied while walking the source
+ * roots, so no source file is opened.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ */
+public final class SourceTreeFingerprint {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private SourceTreeFingerprint() {
+        // hidden
+    }
+
+    /**
+     * Computes the fingerprint of all source files below the settings' root directories.
+     * Root directories that do not exist are ignored.
+     *
+     * @param settings The settings.
+     * @return The fingerprint. It changes whenever a source file is added, removed or
+     *         modified.
+     */
+    public static String of(AnalyzerSettings settings) {
+        final List<HashCode> stamps = new ArrayList<>();
+        for (final Path root : settings.getRootDirectories()) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            final SourceFileFilter filter = SourceFileFilter.forRoot(root,
+                    settings.getSourceIncludes(), settings.getSourceExcludes());
+            try {
+                Files.walkFileTree(root, new StampingVisitor(filter, stamps));
+            } catch (final IOException e) {
+                throw new RuntimeIOException(
+                        "Encountered IOException while listing files of " + root, e);
+            }
+        }
+        // the order in which files are walked is not specified
+        return stamps.isEmpty()
+                ? HASH_FUNCTION.newHasher().hash().toString()
+                : Hashing.combineUnordered(stamps).toString();
+    }
+
+    private static final class StampingVisitor extends SimpleFileVisitor<Path> {
+
+        private final SourceFileFilter filter;
+        private final List<HashCode> stamps;
+
+        private StampingVisitor(SourceFileFilter filter, List<HashCode> stamps) {
+            this.filter = filter;
+            this.stamps = stamps;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            return filter.isExcludedDirectory(dir)
+                    ? FileVisitResult.SKIP_SUBTREE
+                    : FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                throws IOException {
+            if (filter.isSourceFile(file, attrs)) {
+                // the analysis reads the target of a symbolic link
+                final BasicFileAttributes target = attrs.isSymbolicLink()
+                        ? Files.readAttributes(file, BasicFileAttributes.class)
+                        : attrs;
+                final String path = file.toString();
+                stamps.add(HASH_FUNCTION.newHasher()
+                        .putInt(path.length())
+                        .putUnencodedChars(path)
+                        .putLong(target.size())
+                        .putLong(target.lastModifiedTime().toMillis())
+                        .hash());
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Holds the thread pools which are used for parallel analysis. Pools are shared by all
+ * analyses with the same parallelism and live as long as this class is loaded. When a
+ * multi module build runs with multiple threads, the analyses of different modules
+ * overlap in the same pool instead of each module starting its own set of threads.
+ * <p>
+ * The pools use daemon threads and thus never prevent the JVM from exiting.
+ *
+ * @author Simon Taddiken
+ */
+final class WorkerPools {
+
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private WorkerPools() {
+        // hidden
+    }
+
+    /**
+     * Returns the shared pool with the given number of worker threads.
+     *
+     * @param parallelism The number of worker threads.
+     * @return The pool.
+     */
+    static ForkJoinPool forParallelism(int parallelism) {
+        return POOLS.computeIfAbsent(parallelism, WorkerPools::newPool);
+    }
+
+    private static ForkJoinPool newPool(int parallelism) {
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                    .newThread(pool);
+            thread.setName("restrict-imports-" + parallelism + "-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+}
@@ -0,0 +1,73 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedImport;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+
+/**
+ * Writes {@link ReportFormat#JSON JSON} reports. Paths of source files are written
+ * relative to their root directory and as absolute path.
+ *
+ * @author Simon Taddiken
+ */
+final class JsonReportWriter implements ReportWriter {
+
+    static final ReportWriter INSTANCE = new JsonReportWriter();
+
+    @Override
+    public void writeReport(Collection<Path> roots, AnalyzeResult analyzeResult,
+            Appendable target) throws IOException {
+        final JsonWriter json = new JsonWriter(target);
+        json.beginObject()
+                .name("bannedImportsFound").value(analyzeResult.bannedImportsFound())
+                .name("truncated").value(analyzeResult.isTruncated())
+                .name("violationCount").value(analyzeResult.getViolationCount());
+
+        json.name("groups").beginArray();
+        for (final Map.Entry<BannedImportGroup, Integer> entry : analyzeResult
+                .getViolationCountByGroup().entrySet()) {
+            final BannedImportGroup group = entry.getKey();
+            json.beginObject()
+                    .name("reason").value(emptyToNull(group.getReason()))
+                    .name("bannedImports").beginArray();
+            for (final PackagePattern bannedImport : group.getBannedImports()) {
+                json.value(bannedImport.toString());
+            }
+            json.endArray()
+                    .name("violationCount").value(entry.getValue())
+                    .endObject();
+        }
+        json.endArray();
+
+        final RootLookup rootLookup = new RootLookup(roots);
+        json.name("files").beginArray();
+        for (final MatchedFile fileMatch : analyzeResult.getFileMatches()) {
+            final Path sourceFile = fileMatch.getSourceFile();
+            json.beginObject()
+                    .name("path").value(rootLookup.relativize(sourceFile).toString())
+                    .name("absolutePath").value(sourceFile.toAbsolutePath().toString())
+                    .name("reason").value(emptyToNull(fileMatch.getMatchedBy().getReason()))
+                    .name("matches").beginArray();
+            for (final MatchedImport match : fileMatch.getMatchedImports()) {
+                json.beginObject()
+                        .name("line").value(match.getImportLine())
+                        .name("import").value(match.getMatchedString())
+                        .name("matchedBy").value(match.getMatchedBy().toString())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        }
+        json.endArray().endObject();
+    }
+
+    private static String emptyToNull(String reason) {
+        return reason == null || reason.isEmpty() ? null : reason;
+    }
+}
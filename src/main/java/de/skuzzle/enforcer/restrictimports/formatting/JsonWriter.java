@@ -0,0 +1,134 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal streaming JSON encoder. Values are written to the target as soon as they are
+ * passed in, so the size of the encoded document does not affect memory consumption.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class JsonWriter {
+
+    private final Appendable target;
+    // One entry per open object or array which tells whether a separator is needed
+    // before the next element
+    private final Deque<Boolean> hasElements = new ArrayDeque<>();
+    private boolean afterName;
+
+    JsonWriter(Appendable target) {
+        this.target = target;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        beforeValue();
+        target.append('{');
+        hasElements.push(false);
+        return this;
+    }
+
+    JsonWriter endObject() throws IOException {
+        return end('}');
+    }
+
+    JsonWriter beginArray() throws IOException {
+        beforeValue();
+        target.append('[');
+        hasElements.push(false);
+        return this;
+    }
+
+    JsonWriter endArray() throws IOException {
+        return end(']');
+    }
+
+    JsonWriter name(String name) throws IOException {
+        checkState(!afterName && !hasElements.isEmpty(), "Unexpected name '%s'", name);
+        separate();
+        string(name);
+        target.append(':');
+        afterName = true;
+        return this;
+    }
+
+    JsonWriter value(String value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            target.append("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    JsonWriter value(long value) throws IOException {
+        beforeValue();
+        target.append(String.valueOf(value));
+        return this;
+    }
+
+    JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        target.append(String.valueOf(value));
+        return this;
+    }
+
+    private JsonWriter end(char bracket) throws IOException {
+        checkState(!afterName && !hasElements.isEmpty(), "Unexpected '%s'", bracket);
+        hasElements.pop();
+        target.append(bracket);
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else if (!hasElements.isEmpty()) {
+            separate();
+        }
+    }
+
+    private void separate() throws IOException {
+        if (hasElements.pop()) {
+            target.append(',');
+        }
+        hasElements.push(true);
+    }
+
+    private void string(String value) throws IOException {
+        target.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                target.append("\\\"");
+                break;
+            case '\\':
+                target.append("\\\\");
+                break;
+            case '\n':
+                target.append("\\n");
+                break;
+            case '\r':
+                target.append("\\r");
+                break;
+            case '\t':
+                target.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    target.append(String.format("\\u%04x", (int) c));
+                } else {
+                    target.append(c);
+                }
+            }
+        }
+        target.append('"');
+    }
+}
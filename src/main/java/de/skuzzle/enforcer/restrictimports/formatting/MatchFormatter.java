@@ -1,5 +1,6 @@
 package de.skuzzle.enforcer.restrictimports.formatting;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 
@@ -12,4 +13,18 @@ public interface MatchFormatter {
     }
 
     String formatMatches(Collection<Path> roots, AnalyzeResult analyzeResult);
+
+    /**
+     * Writes the human readable report of the given result to the given target. The
+     * report is written piece by piece without building it in memory first.
+     *
+     * @param roots The root directories against which the paths of the source files are
+     *            reported.
+     * @param analyzeResult The result to format.
+     * @param target The target to write to.
+     * @throws IOException If writing to the target fails.
+     * @since 0.15.0
+     */
+    void formatMatches(Collection<Path> roots, AnalyzeResult analyzeResult, Appendable target)
+            throws IOException;
 }
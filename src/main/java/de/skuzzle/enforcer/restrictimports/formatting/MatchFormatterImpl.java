@@ -1,7 +1,9 @@
 package de.skuzzle.enforcer.restrictimports.formatting;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -10,6 +12,7 @@ import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
 import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
 import de.skuzzle.enforcer.restrictimports.analyze.MatchedImport;
+import de.skuzzle.enforcer.restrictimports.analyze.RuntimeIOException;
 
 class MatchFormatterImpl implements MatchFormatter {
 
@@ -17,43 +20,76 @@ class MatchFormatterImpl implements MatchFormatter {
 
     @Override
     public String formatMatches(Collection<Path> roots, AnalyzeResult analyzeResult) {
-        final StringBuilder b = new StringBuilder("\nBanned imports detected:\n");
+        final StringBuilder b = new StringBuilder();
+        try {
+            formatMatches(roots, analyzeResult, b);
+        } catch (final IOException e) {
+            throw new RuntimeIOException("StringBuilder should never throw IOException", e);
+        }
+        return b.toString();
+    }
+
+    @Override
+    public void formatMatches(Collection<Path> roots, AnalyzeResult analyzeResult,
+            Appendable target) throws IOException {
+        target.append("\nBanned imports detected:\n");
 
-        final Map<BannedImportGroup, List<MatchedFile>> matchesByGroup = analyzeResult.getFileMatches().stream()
-                .collect(Collectors.groupingBy(MatchedFile::getMatchedBy));
+        // Groups are reported in the order in which their first file appears
+        final Map<BannedImportGroup, List<MatchedFile>> matchesByGroup = analyzeResult
+                .getFileMatches().stream()
+                .collect(Collectors.groupingBy(MatchedFile::getMatchedBy, LinkedHashMap::new,
+                        Collectors.toList()));
 
-        matchesByGroup.forEach((group, matches) -> {
-            final String message = group.getReason();
+        final RootLookup rootLookup = new RootLookup(roots);
+        for (final Map.Entry<BannedImportGroup, List<MatchedFile>> entry : matchesByGroup
+                .entrySet()) {
+            final String message = entry.getKey().getReason();
             if (message != null && !message.isEmpty()) {
-                b.append("Reason: ").append(message).append("\n");
+                target.append("Reason: ").append(message).append("\n");
             }
-            analyzeResult.getFileMatches().forEach(fileMatch -> {
-                b.append("\tin file: ")
-                        .append(relativize(roots, fileMatch.getSourceFile()))
+            for (final MatchedFile fileMatch : entry.getValue()) {
+                target.append("\tin file: ")
+                        .append(rootLookup.relativize(fileMatch.getSourceFile()).toString())
                         .append("\n");
-                fileMatch.getMatchedImports().forEach(match -> appendMatch(match, b));
-            });
-        });
+                for (final MatchedImport match : fileMatch.getMatchedImports()) {
+                    appendMatch(match, target);
+                }
+            }
+        }
 
-        return b.toString();
+        if (analyzeResult.isTruncated()) {
+            appendTotals(analyzeResult, target);
+        }
     }
 
-    private static Path relativize(Collection<Path> roots, Path path) {
-        return roots.stream()
-                .filter(path::startsWith)
-                .map(root -> root.relativize(path))
-                .findFirst()
-                .orElse(path);
+    private void appendTotals(AnalyzeResult analyzeResult, Appendable target)
+            throws IOException {
+        final int reported = analyzeResult.getFileMatches().stream()
+                .mapToInt(fileMatch -> fileMatch.getMatchedImports().size())
+                .sum();
+        target.append("\nReported ").append(String.valueOf(reported))
+                .append(" of ").append(String.valueOf(analyzeResult.getViolationCount()))
+                .append(" banned imports. Total per group:\n");
+        for (final Map.Entry<BannedImportGroup, Integer> entry : analyzeResult
+                .getViolationCountByGroup().entrySet()) {
+            final BannedImportGroup group = entry.getKey();
+            final String reason = group.getReason();
+            target.append("\t").append(String.valueOf(entry.getValue()))
+                    .append(" banned imports of ")
+                    .append(reason == null || reason.isEmpty()
+                            ? group.getBannedImports().toString()
+                            : reason)
+                    .append("\n");
+        }
     }
 
-    private void appendMatch(MatchedImport match, StringBuilder b) {
-        b.append("\t\t")
+    private void appendMatch(MatchedImport match, Appendable target) throws IOException {
+        target.append("\t\t")
                 .append(match.getMatchedString())
                 .append(" (Line: ")
-                .append(match.getImportLine())
+                .append(String.valueOf(match.getImportLine()))
                 .append(", Matched by: ")
-                .append(match.getMatchedBy())
+                .append(match.getMatchedBy().toString())
                 .append(")\n");
     }
-
 }
@@ -0,0 +1,55 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Machine readable formats in which the result of an analysis can be reported.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ * @see ReportWriter
+ */
+public enum ReportFormat {
+    /**
+     * A plain JSON document containing the matched files and imports as well as the total
+     * number of violations per group.
+     */
+    JSON("json"),
+    /**
+     * A <a href="https://sarifweb.azurewebsites.net/">SARIF 2.1.0</a> log which can be
+     * consumed by code quality and code scanning tools.
+     */
+    SARIF("sarif");
+
+    private final String fileExtension;
+
+    private ReportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Returns the extension (without leading dot) of files in this format.
+     *
+     * @return The file extension.
+     */
+    public String getFileExtension() {
+        return this.fileExtension;
+    }
+
+    /**
+     * Parses a format from its name. Parsing is case insensitive.
+     *
+     * @param name The name of the format.
+     * @return The format.
+     * @throws IllegalArgumentException If there is no format with the given name.
+     */
+    public static ReportFormat fromString(String name) {
+        final String normalized = name.trim().toUpperCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(format -> format.name().equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Unknown report format '%s'. Valid formats are: json, sarif", name)));
+    }
+}
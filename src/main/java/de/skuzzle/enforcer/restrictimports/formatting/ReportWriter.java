@@ -0,0 +1,47 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+
+/**
+ * Writes the result of an analysis in a machine readable format. The report is encoded
+ * while it is written, so no intermediate representation of the whole document is
+ * created.
+ *
+ * @author Simon Taddiken
+ * @since 0.15.0
+ */
+public interface ReportWriter {
+
+    /**
+     * Returns the writer for the given format.
+     *
+     * @param format The format.
+     * @return The writer.
+     */
+    public static ReportWriter forFormat(ReportFormat format) {
+        switch (format) {
+        case JSON:
+            return JsonReportWriter.INSTANCE;
+        case SARIF:
+            return SarifReportWriter.INSTANCE;
+        default:
+            throw new IllegalArgumentException("Unsupported report format: " + format);
+        }
+    }
+
+    /**
+     * Writes the report of the given result to the given target.
+     *
+     * @param roots The root directories against which the paths of the source files are
+     *            reported.
+     * @param analyzeResult The result to report.
+     * @param target The target to write to.
+     * @throws IOException If writing to the target fails.
+     */
+    void writeReport(Collection<Path> roots, AnalyzeResult analyzeResult, Appendable target)
+            throws IOException;
+}
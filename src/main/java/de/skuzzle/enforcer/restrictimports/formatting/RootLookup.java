@@ -0,0 +1,54 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Finds the root directory of source files in order to report their paths relative to
+ * it. Source files are usually grouped in few directories, so the root is looked up only
+ * once per directory.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class RootLookup {
+
+    private final List<Path> roots;
+    private final Map<Path, Optional<Path>> rootByDirectory = new HashMap<>();
+
+    RootLookup(Collection<Path> roots) {
+        // The most specific root wins if roots are nested
+        this.roots = new ArrayList<>(roots);
+        this.roots.sort(Comparator.comparingInt(Path::getNameCount).reversed());
+    }
+
+    /**
+     * Returns the path of the given file relative to its root directory.
+     *
+     * @param sourceFile The source file.
+     * @return The relative path or the source file itself if it is not located within any
+     *         root.
+     */
+    Path relativize(Path sourceFile) {
+        final Path directory = sourceFile.getParent();
+        if (directory == null) {
+            return sourceFile;
+        }
+        return rootByDirectory.computeIfAbsent(directory, this::findRoot)
+                .map(root -> root.relativize(sourceFile))
+                .orElse(sourceFile);
+    }
+
+    private Optional<Path> findRoot(Path directory) {
+        return roots.stream()
+                .filter(directory::startsWith)
+                .findFirst();
+    }
+}
@@ -0,0 +1,107 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedImport;
+import de.skuzzle.enforcer.restrictimports.analyze.PluginVersion;
+
+/**
+ * Writes {@link ReportFormat#SARIF SARIF 2.1.0} reports. Every banned import becomes a
+ * result of the single rule {@value #RULE_ID}. Source files are referenced by their
+ * absolute URI. If the result has been truncated, the total number of violations is
+ * recorded in the properties of the run.
+ *
+ * @author Simon Taddiken
+ */
+final class SarifReportWriter implements ReportWriter {
+
+    static final ReportWriter INSTANCE = new SarifReportWriter();
+
+    static final String RULE_ID = "banned-import";
+
+    private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+    private static final String TOOL_NAME = "restrict-imports-enforcer-rule";
+    private static final String TOOL_URI = "https://github.com/skuzzle/"
+            + "restrict-imports-enforcer-rule";
+    private static final String TOOL_VERSION = PluginVersion.get();
+
+    @Override
+    public void writeReport(Collection<Path> roots, AnalyzeResult analyzeResult,
+            Appendable target) throws IOException {
+        final JsonWriter json = new JsonWriter(target);
+        json.beginObject()
+                .name("$schema").value(SCHEMA)
+                .name("version").value("2.1.0")
+                .name("runs").beginArray()
+                .beginObject();
+
+        json.name("tool").beginObject()
+                .name("driver").beginObject()
+                .name("name").value(TOOL_NAME)
+                .name("version").value(TOOL_VERSION)
+                .name("informationUri").value(TOOL_URI)
+                .name("rules").beginArray()
+                .beginObject()
+                .name("id").value(RULE_ID)
+                .name("shortDescription").beginObject()
+                .name("text").value("Usage of a banned import")
+                .endObject()
+                .endObject()
+                .endArray()
+                .endObject()
+                .endObject();
+
+        json.name("results").beginArray();
+        for (final MatchedFile fileMatch : analyzeResult.getFileMatches()) {
+            final String uri = fileMatch.getSourceFile().toAbsolutePath().toUri().toString();
+            final String reason = fileMatch.getMatchedBy().getReason();
+            for (final MatchedImport match : fileMatch.getMatchedImports()) {
+                writeResult(json, uri, reason, match);
+            }
+        }
+        json.endArray();
+
+        json.name("properties").beginObject()
+                .name("truncated").value(analyzeResult.isTruncated())
+                .name("violationCount").value(analyzeResult.getViolationCount())
+                .endObject();
+
+        json.endObject()
+                .endArray()
+                .endObject();
+    }
+
+    private void writeResult(JsonWriter json, String uri, String reason, MatchedImport match)
+            throws IOException {
+        final StringBuilder message = new StringBuilder("Banned import ")
+                .append(match.getMatchedString())
+                .append(" (matched by ").append(match.getMatchedBy()).append(')');
+        if (reason != null && !reason.isEmpty()) {
+            message.append(": ").append(reason);
+        }
+
+        json.beginObject()
+                .name("ruleId").value(RULE_ID)
+                .name("level").value("error")
+                .name("message").beginObject()
+                .name("text").value(message.toString())
+                .endObject()
+                .name("locations").beginArray()
+                .beginObject()
+                .name("physicalLocation").beginObject()
+                .name("artifactLocation").beginObject()
+                .name("uri").value(uri)
+                .endObject()
+                .name("region").beginObject()
+                .name("startLine").value(match.getImportLine())
+                .endObject()
+                .endObject()
+                .endObject()
+                .endArray()
+                .endObject();
+    }
+}
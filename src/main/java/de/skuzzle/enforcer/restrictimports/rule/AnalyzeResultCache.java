@@ -0,0 +1,76 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzerSettings;
+import de.skuzzle.enforcer.restrictimports.analyze.SourceTreeFingerprint;
+
+/**
+ * Remembers the results of previous rule executions within the same build. In a multi
+ * module reactor, modules often share source roots (for example added via the
+ * build-helper plugin) and would analyze the very same files with the very same
+ * configuration over and over again.
+ * <p>
+ * A result is only reused if the rule configuration, the source file charset and the
+ * source roots are equal and if the {@link SourceTreeFingerprint fingerprint} of the
+ * source roots did not change. Computing the fingerprint requires walking the source
+ * roots, so the cache is only consulted if the rule is configured to reuse results.
+ *
+ * @author Simon Taddiken
+ */
+final class AnalyzeResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnalyzeResultCache.class);
+
+    // Entries become stale as soon as a source file changes. The limit only protects
+    // long running JVMs which execute many builds
+    private static final int MAXIMUM_SIZE = 64;
+
+    private final Cache<String, CachedResult> results = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    /**
+     * Returns the result of a previous analysis with the same configuration of the same
+     * unchanged source files or performs the analysis using the given supplier.
+     *
+     * @param cacheId Identifies the rule configuration.
+     * @param settings The settings for the analysis.
+     * @param analysis Performs the actual analysis.
+     * @return The result.
+     */
+    AnalyzeResult getOrAnalyze(String cacheId, AnalyzerSettings settings,
+            Supplier<AnalyzeResult> analysis) {
+        final String key = cacheId + ":" + settings.getSourceFileCharset() + ":"
+                + settings.getRootDirectories();
+
+        // The fingerprint is taken before the analysis, so that files which are modified
+        // during the analysis invalidate the result
+        final String fingerprint = SourceTreeFingerprint.of(settings);
+        final CachedResult cached = results.getIfPresent(key);
+        if (cached != null && cached.fingerprint.equals(fingerprint)) {
+            LOGGER.debug("Reusing result of previous analysis of unchanged source files");
+            return cached.result;
+        }
+        final AnalyzeResult result = analysis.get();
+        results.put(key, new CachedResult(fingerprint, result));
+        return result;
+    }
+
+    private static final class CachedResult {
+        private final String fingerprint;
+        private final AnalyzeResult result;
+
+        private CachedResult(String fingerprint, AnalyzeResult result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+}
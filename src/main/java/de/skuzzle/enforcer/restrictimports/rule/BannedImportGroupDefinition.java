@@ -6,6 +6,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import com.google.common.base.MoreObjects;
+
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
 import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
 
@@ -37,6 +39,22 @@ public class BannedImportGroupDefinition {
                 .build();
     }
 
+    /**
+     * Returns a String which is equal for two definitions if and only if they would
+     * create equal groups.
+     *
+     * @return The key.
+     */
+    String getConfigurationKey() {
+        return MoreObjects.toStringHelper(this)
+                .add("basePackages", assembleList(this.basePackage, this.basePackages))
+                .add("bannedImports", assembleList(this.bannedImport, this.bannedImports))
+                .add("allowedImports", assembleList(this.allowedImport, this.allowedImports))
+                .add("exclusions", assembleList(this.exclusion, this.exclusions))
+                .add("reason", this.reason)
+                .toString();
+    }
+
     /**
      * Determines whether the user modified at least a single field within this
      * definition.
@@ -0,0 +1,53 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroups;
+
+/**
+ * Shares compiled {@link BannedImportGroups} among all rule executions within the same
+ * build. In a multi module build, the rule is usually configured once in a parent pom
+ * and every module would otherwise parse and compile the very same patterns again.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Simon Taddiken
+ */
+final class BannedImportGroupsCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BannedImportGroupsCache.class);
+
+    // The limit only protects long running JVMs which execute many builds
+    private static final int MAXIMUM_SIZE = 64;
+
+    private final Cache<String, BannedImportGroups> groups = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    /**
+     * Returns the groups that have previously been compiled for the same configuration or
+     * compiles them using the given supplier.
+     *
+     * @param configurationKey Uniquely identifies the configuration of the groups.
+     * @param compiler Creates the groups if they are not cached.
+     * @return The groups.
+     */
+    BannedImportGroups getOrCompile(String configurationKey,
+            Supplier<BannedImportGroups> compiler) {
+        final BannedImportGroups cached = groups.getIfPresent(configurationKey);
+        if (cached != null) {
+            LOGGER.debug("Reusing banned import groups of previous execution");
+            return cached;
+        }
+        // Concurrent executions might compile the same groups twice which is harmless
+        final BannedImportGroups compiled = compiler.get();
+        groups.put(configurationKey, compiled);
+        return compiled;
+    }
+}
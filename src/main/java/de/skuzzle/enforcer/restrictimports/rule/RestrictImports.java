@@ -2,12 +2,18 @@ package de.skuzzle.enforcer.restrictimports.rule;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -18,15 +24,20 @@ import org.apache.maven.project.MavenProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hashing;
+
 import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
 import de.skuzzle.enforcer.restrictimports.analyze.AnalyzerSettings;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportDefinitionException;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
 import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroups;
-import de.skuzzle.enforcer.restrictimports.analyze.CommentBufferOverflowException;
+import de.skuzzle.enforcer.restrictimports.analyze.ReadStrategy;
 import de.skuzzle.enforcer.restrictimports.analyze.RuntimeIOException;
 import de.skuzzle.enforcer.restrictimports.analyze.SourceTreeAnalyzer;
 import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
+import de.skuzzle.enforcer.restrictimports.formatting.ReportFormat;
+import de.skuzzle.enforcer.restrictimports.formatting.ReportWriter;
 
 /**
  * Enforcer rule which restricts the usage of certain packages or classes within a Java
@@ -35,12 +46,26 @@ import de.skuzzle.enforcer.restrictimports.formatting.MatchFormatter;
 public class RestrictImports extends BannedImportGroupDefinition implements EnforcerRule {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RestrictImports.class);
+    private static final String CACHE_DIRECTORY_NAME = "restrict-imports";
+    private static final AnalyzeResultCache RESULT_CACHE = new AnalyzeResultCache();
+    private static final BannedImportGroupsCache GROUPS_CACHE = new BannedImportGroupsCache();
 
     private List<BannedImportGroupDefinition> groups = new ArrayList<>();
 
     private boolean includeTestCode;
-    private int commentLineBufferSize = 128;
     private Charset sourceFileCharset;
+    private int parallelism = 1;
+    private ReadStrategy readStrategy = ReadStrategy.STREAM;
+    private long mappingThreshold = 64 * 1024;
+    private boolean incrementalAnalysis;
+    private boolean failFast;
+    private int maxReportedViolations = Integer.MAX_VALUE;
+    private List<String> sourceIncludes = new ArrayList<>();
+    private List<String> sourceExcludes = new ArrayList<>();
+    private boolean packagePruning;
+    private boolean reuseResults;
+    private ReportFormat reportFormat;
+    private String reportFile;
 
     @Override
     public void execute(EnforcerRuleHelper helper) throws EnforcerRuleException {
@@ -49,31 +74,44 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
 
             LOGGER.debug("Checking for banned imports");
 
-            final BannedImportGroups groups = assembleGroups();
+            final BannedImportGroups groups = GROUPS_CACHE.getOrCompile(
+                    getGroupsConfigurationKey(), this::assembleGroups);
             LOGGER.debug("Banned import groups:\n{}", groups);
 
             final AnalyzerSettings analyzerSettings = createAnalyzerSettingsFromPluginConfiguration(project);
             LOGGER.debug("Analyzer settings:\n{}", analyzerSettings);
 
-            final AnalyzeResult analyzeResult = SourceTreeAnalyzer.getInstance().analyze(analyzerSettings, groups);
+            final Stopwatch analyzeTime = Stopwatch.createStarted();
+            final Supplier<AnalyzeResult> analysis = () -> SourceTreeAnalyzer.getInstance()
+                    .analyze(analyzerSettings, groups);
+            final AnalyzeResult analyzeResult = this.reuseResults
+                    ? RESULT_CACHE.getOrAnalyze(getCacheId(), analyzerSettings, analysis)
+                    : analysis.get();
+            LOGGER.debug("Analysis took {}", analyzeTime);
             LOGGER.debug("Analyzer result:\n{}", analyzeResult);
 
+            final Stopwatch reportTime = Stopwatch.createStarted();
+            writeReport(project, analyzerSettings, analyzeResult);
+            LOGGER.debug("Writing the report took {}", reportTime);
+
+            final Stopwatch formatTime = Stopwatch.createStarted();
+            final String errorMessage = analyzeResult.bannedImportsFound()
+                    ? MatchFormatter.getInstance()
+                            .formatMatches(analyzerSettings.getRootDirectories(), analyzeResult)
+                    : "";
+            LOGGER.debug("Formatting the result took {}", formatTime);
+
             if (analyzeResult.bannedImportsFound()) {
-                final String errorMessage = MatchFormatter.getInstance()
-                        .formatMatches(analyzerSettings.getRootDirectories(), analyzeResult);
+                if (this.failFast) {
+                    throw new EnforcerRuleException(errorMessage + "\nAnalysis stopped at "
+                            + "the first violation because failFast is enabled");
+                }
                 throw new EnforcerRuleException(errorMessage);
             } else {
                 LOGGER.debug("No banned imports found");
             }
         } catch (final RuntimeIOException e) {
             throw new EnforcerRuleException(e.getMessage(), e);
-        } catch (final CommentBufferOverflowException e) {
-            // thrown by the TransientCommentReader in case the comment buffer is too
-            // small
-            throw new EnforcerRuleException(String.format(
-                    "Error while reading java source file. The comment line buffer is too small. "
-                            + "Please set <commentLineBufferSize> to a value greater than %d. %s",
-                    commentLineBufferSize, e.getMessage()));
         } catch (final BannedImportDefinitionException e) {
             throw new EnforcerRuleException("RestrictImports rule configuration error: " + e.getMessage(), e);
         } catch (final EnforcerRuleException e) {
@@ -83,6 +121,15 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
         }
     }
 
+    private String getGroupsConfigurationKey() {
+        if (!this.groups.isEmpty()) {
+            return this.groups.stream()
+                    .map(BannedImportGroupDefinition::getConfigurationKey)
+                    .collect(Collectors.joining(System.lineSeparator()));
+        }
+        return getConfigurationKey();
+    }
+
     private BannedImportGroups assembleGroups() {
         if (!this.groups.isEmpty()) {
             final List<BannedImportGroup> bannedImportGroups = this.groups.stream()
@@ -106,11 +153,55 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
 
         return AnalyzerSettings.builder()
                 .withRootDirectories(sourceRoots)
-                .withCommentLineBufferSize(commentLineBufferSize)
                 .withSourceFileCharset(sourceFileCharset)
+                .withParallelism(parallelism)
+                .withReadStrategy(readStrategy)
+                .withMappingThreshold(mappingThreshold)
+                .withCacheDirectory(determineCacheDirectory(mavenProject))
+                .withFailFast(failFast)
+                .withMaxReportedViolations(maxReportedViolations)
+                .withSourceIncludes(sourceIncludes)
+                .withSourceExcludes(sourceExcludes)
+                .withPackagePruning(packagePruning)
                 .build();
     }
 
+    private Path determineCacheDirectory(MavenProject mavenProject) {
+        if (!this.incrementalAnalysis) {
+            return null;
+        }
+        return Paths.get(mavenProject.getBuild().getDirectory(), CACHE_DIRECTORY_NAME);
+    }
+
+    private void writeReport(MavenProject mavenProject, AnalyzerSettings analyzerSettings,
+            AnalyzeResult analyzeResult) {
+        if (this.reportFormat == null) {
+            return;
+        }
+        final Path reportPath = determineReportFile(mavenProject);
+        try {
+            Files.createDirectories(reportPath.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8)) {
+                ReportWriter.forFormat(this.reportFormat).writeReport(
+                        analyzerSettings.getRootDirectories(), analyzeResult, writer);
+            }
+        } catch (final IOException e) {
+            throw new RuntimeIOException("Encountered IOException while writing report to "
+                    + reportPath, e);
+        }
+        LOGGER.info("Wrote {} report to {}", this.reportFormat.getFileExtension(), reportPath);
+    }
+
+    private Path determineReportFile(MavenProject mavenProject) {
+        if (this.reportFile == null) {
+            return Paths.get(mavenProject.getBuild().getDirectory(), CACHE_DIRECTORY_NAME,
+                    "report." + this.reportFormat.getFileExtension());
+        }
+        final Path path = Paths.get(this.reportFile);
+        final File basedir = mavenProject.getBasedir();
+        return basedir == null ? path : basedir.toPath().resolve(path);
+    }
+
     private Charset determineSourceFileCharset(MavenProject mavenProject) {
         if (this.sourceFileCharset != null) {
             return this.sourceFileCharset;
@@ -211,28 +302,108 @@ public class RestrictImports extends BannedImportGroupDefinition implements Enfo
         this.includeTestCode = includeTestCode;
     }
 
+    /**
+     * Block comments of arbitrary length are supported, so this setting has no effect
+     * anymore. The setter only remains in order to not break existing configurations.
+     *
+     * @param commentLineBufferSize Ignored.
+     * @deprecated Since 0.15.0, without replacement.
+     */
+    @Deprecated
     public final void setCommentLineBufferSize(int commentLineBufferSize) {
         checkArgument(commentLineBufferSize > 0,
                 "Configuration error: commentLineBufferSize must be > 0");
-        this.commentLineBufferSize = commentLineBufferSize;
+        LOGGER.warn("The <commentLineBufferSize> option is deprecated and has no effect anymore. "
+                + "You can safely remove it from your configuration");
     }
 
     public final void setSourceFileCharset(String sourceFileCharset) {
         this.sourceFileCharset = Charset.forName(sourceFileCharset);
     }
 
+    public final void setParallelism(int parallelism) {
+        checkArgument(parallelism > 0,
+                "Configuration error: parallelism must be > 0");
+        this.parallelism = parallelism;
+    }
+
+    public final void setReadStrategy(String readStrategy) {
+        this.readStrategy = ReadStrategy.fromString(readStrategy);
+    }
+
+    public final void setMappingThreshold(long mappingThreshold) {
+        checkArgument(mappingThreshold >= 0,
+                "Configuration error: mappingThreshold must be >= 0");
+        this.mappingThreshold = mappingThreshold;
+    }
+
+    public final void setIncrementalAnalysis(boolean incrementalAnalysis) {
+        this.incrementalAnalysis = incrementalAnalysis;
+    }
+
+    public final void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    public final void setMaxReportedViolations(int maxReportedViolations) {
+        checkArgument(maxReportedViolations >= 0,
+                "Configuration error: maxReportedViolations must be >= 0");
+        this.maxReportedViolations = maxReportedViolations;
+    }
+
+    public final void setSourceIncludes(List<String> sourceIncludes) {
+        this.sourceIncludes = sourceIncludes;
+    }
+
+    public final void setSourceExcludes(List<String> sourceExcludes) {
+        this.sourceExcludes = sourceExcludes;
+    }
+
+    public final void setPackagePruning(boolean packagePruning) {
+        this.packagePruning = packagePruning;
+    }
+
+    public final void setReuseResults(boolean reuseResults) {
+        this.reuseResults = reuseResults;
+    }
+
+    public final void setReportFormat(String reportFormat) {
+        this.reportFormat = ReportFormat.fromString(reportFormat);
+    }
+
+    public final void setReportFile(String reportFile) {
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Returns a digest of all configuration options that influence the analysis result,
+     * including whether the result is complete or stopped at the first match. Options
+     * which only affect how the analysis is performed (like the parallelism) are not
+     * included.
+     */
     @Override
     public String getCacheId() {
-        return "";
+        final String configuration = getGroupsConfigurationKey() + ":" + this.includeTestCode
+                + ":" + this.sourceFileCharset + ":" + this.failFast + ":"
+                + this.maxReportedViolations + ":" + this.sourceIncludes + ":"
+                + this.sourceExcludes + ":" + this.packagePruning;
+        return Hashing.sha256().hashString(configuration, StandardCharsets.UTF_8).toString();
     }
 
+    /**
+     * The enforcer plugin determines the cache id and checks for a valid cached result
+     * before the rule is executed and thus before the current project's source roots are
+     * known. Reusing results based on the configuration alone would skip modules with
+     * different sources, so results are instead reused within {@link #execute} where
+     * the source roots are available, if enabled using {@link #setReuseResults(boolean)}.
+     */
     @Override
     public boolean isCacheable() {
         return false;
     }
 
     @Override
-    public boolean isResultValid(EnforcerRule rule) {
+    public boolean isResultValid(EnforcerRule cachedRule) {
         return false;
     }
 
@@ -0,0 +1,37 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class AnalyzeStatisticsTest {
+
+    private final AnalyzeStatistics subject = new AnalyzeStatistics();
+
+    @Test
+    void testRecordWalk() throws Exception {
+        subject.recordWalk(2, TimeUnit.MILLISECONDS.toNanos(3));
+        subject.recordWalk(1, TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertThat(subject.getFilesWalked()).isEqualTo(3);
+        assertThat(subject.getWalkMillis()).isEqualTo(7);
+    }
+
+    @Test
+    void testRecordPhases() throws Exception {
+        subject.recordRead(TimeUnit.MILLISECONDS.toNanos(3));
+        subject.recordRead(TimeUnit.MILLISECONDS.toNanos(4));
+        subject.recordMatch(TimeUnit.MILLISECONDS.toNanos(5));
+        subject.recordImportChecked(true);
+        subject.recordImportChecked(false);
+
+        assertThat(subject.getHeadersRead()).isEqualTo(2);
+        assertThat(subject.getReadMillis()).isEqualTo(7);
+        assertThat(subject.getMatchMillis()).isEqualTo(5);
+        assertThat(subject.getImportsChecked()).isEqualTo(2);
+        assertThat(subject.getImportsMatched()).isEqualTo(1);
+    }
+
+}
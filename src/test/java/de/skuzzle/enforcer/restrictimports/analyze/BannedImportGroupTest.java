@@ -1,5 +1,6 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import org.junit.jupiter.api.Test;
@@ -10,7 +11,9 @@ public class BannedImportGroupTest {
 
     @Test
     public void testEquals() throws Exception {
-        EqualsVerifier.forClass(BannedImportGroup.class).verify();
+        EqualsVerifier.forClass(BannedImportGroup.class)
+                .withIgnoredFields("bannedImportsTrie", "allowedImportsTrie")
+                .verify();
     }
 
     @Test
@@ -73,4 +76,19 @@ public class BannedImportGroupTest {
                 .withMessageContaining("Exclusions must not be static");
     }
 
+
+    @Test
+    void testIfImportIsBannedReturnsMostSpecificPattern() throws Exception {
+        final BannedImportGroup subject = BannedImportGroup.builder()
+                .withBannedImports("java.**", "java.util.ArrayList")
+                .withAllowedImports("java.util.List")
+                .build();
+
+        assertThat(subject.ifImportIsBanned("java.util.ArrayList"))
+                .contains(PackagePattern.parse("java.util.ArrayList"));
+        assertThat(subject.ifImportIsBanned("java.io.File"))
+                .contains(PackagePattern.parse("java.**"));
+        assertThat(subject.ifImportIsBanned("java.util.List")).isEmpty();
+        assertThat(subject.ifImportIsBanned("javax.inject.Inject")).isEmpty();
+    }
 }
@@ -1,5 +1,7 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import org.junit.jupiter.api.Test;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -8,6 +10,135 @@ public class BannedImportGroupsTest {
 
     @Test
     void testEquals() throws Exception {
-        EqualsVerifier.forClass(BannedImportGroups.class).verify();
+        EqualsVerifier.forClass(BannedImportGroups.class)
+                .withIgnoredFields("basePackageIndex", "groupIndices", "specificityRanks",
+                        "selectionClassNameIndependent")
+                .verify();
+    }
+
+    private static BannedImportGroup group(String... basePackages) {
+        return BannedImportGroup.builder()
+                .withBasePackages(basePackages)
+                .withBannedImports("foo.bar")
+                .build();
+    }
+
+    @Test
+    void testSelectMostSpecificGroup() throws Exception {
+        final BannedImportGroup all = group("**");
+        final BannedImportGroup skuzzle = group("com.foo.**", "de.skuzzle.**");
+        final BannedImportGroup sample = group("de.skuzzle.Sample");
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(all)
+                .withGroup(skuzzle)
+                .withGroup(sample)
+                .build();
+
+        assertThat(subject.selectGroupFor("de.skuzzle.Sample")).contains(sample);
+        assertThat(subject.selectGroupFor("de.skuzzle.Other")).contains(skuzzle);
+        assertThat(subject.selectGroupFor("com.foo.Other")).contains(skuzzle);
+        assertThat(subject.selectGroupFor("com.Other")).contains(all);
+    }
+
+    @Test
+    void testSelectFirstOfEquallySpecificGroups() throws Exception {
+        final BannedImportGroup first = group("de.*.Sample");
+        final BannedImportGroup second = group("de.skuzzle.*");
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(first)
+                .withGroup(second)
+                .build();
+
+        assertThat(subject.selectGroupFor("de.skuzzle.Sample")).contains(first);
+    }
+
+    @Test
+    void testSelectByFirstMatchingBasePackageOfEachGroup() throws Exception {
+        final BannedImportGroup broad = group("de.**", "de.skuzzle.sample.**");
+        final BannedImportGroup skuzzle = group("de.skuzzle.**");
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(broad)
+                .withGroup(skuzzle)
+                .build();
+
+        assertThat(subject.selectGroupFor("de.skuzzle.sample.Sample")).contains(skuzzle);
+    }
+
+    @Test
+    void testSelectNoGroup() throws Exception {
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(group("de.skuzzle.**"))
+                .build();
+
+        assertThat(subject.selectGroupFor("com.foo.Sample")).isEmpty();
+    }
+
+    @Test
+    void testSelectExcludedByMostSpecificGroup() throws Exception {
+        final BannedImportGroup all = group("**");
+        final BannedImportGroup skuzzle = BannedImportGroup.builder()
+                .withBasePackages("de.skuzzle.**")
+                .withBannedImports("foo.bar")
+                .withExcludedClasses("de.skuzzle.Sample")
+                .build();
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(all)
+                .withGroup(skuzzle)
+                .build();
+
+        assertThat(subject.selectGroupFor("de.skuzzle.Sample")).isEmpty();
+        assertThat(subject.selectGroupFor("de.skuzzle.Other")).contains(skuzzle);
+    }
+
+    @Test
+    void testMayMatchBelow() throws Exception {
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(group("com.acme.core.**", "de.skuzzle.Sample"))
+                .build();
+
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com"))).isTrue();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.core.impl"))).isTrue();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.legacy"))).isFalse();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("de.skuzzle"))).isTrue();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("de.skuzzle.sub"))).isFalse();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("org"))).isFalse();
+    }
+
+    @Test
+    void testMayMatchBelowConsidersExclusions() throws Exception {
+        final BannedImportGroup acme = BannedImportGroup.builder()
+                .withBasePackages("com.acme.**")
+                .withBannedImports("foo.bar")
+                .withExcludedClasses("com.acme.legacy.**", "com.acme.*.generated.**",
+                        "com.acme.Sample")
+                .build();
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(acme)
+                .build();
+
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme"))).isTrue();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.legacy"))).isFalse();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.legacy.sub")))
+                .isFalse();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.core"))).isTrue();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.core.generated")))
+                .isFalse();
+    }
+
+    @Test
+    void testMayMatchBelowIfOnlyOneGroupExcludes() throws Exception {
+        final BannedImportGroup acme = BannedImportGroup.builder()
+                .withBasePackages("com.acme.**")
+                .withBannedImports("foo.bar")
+                .withExcludedClasses("com.acme.legacy.**")
+                .build();
+        final BannedImportGroups subject = BannedImportGroups.builder()
+                .withGroup(acme)
+                .withGroup(group("com.acme.legacy.api.**"))
+                .build();
+
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.legacy"))).isTrue();
+        assertThat(subject.mayMatchBelow(QualifiedName.parse("com.acme.legacy.impl")))
+                .isFalse();
     }
 }
@@ -0,0 +1,171 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ByteLineScannerTest {
+
+    private List<String> scanLines(String in) {
+        return scanLines(in, StandardCharsets.UTF_8);
+    }
+
+    private List<String> scanLines(String in, Charset charset) {
+        // use a tiny buffer to also cover tokens that span multiple buffer fills
+        final ByteArrayInputStream bytes = new ByteArrayInputStream(in.getBytes(charset));
+        final ByteLineScanner scanner = new ByteLineScanner(Channels.newChannel(bytes),
+                charset, 3);
+        final List<String> result = new ArrayList<>();
+        scanner.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    void testEmpty() throws Exception {
+        assertThat(scanLines("")).isEmpty();
+    }
+
+    @Test
+    void testNoComments() throws Exception {
+        assertThat(scanLines("line1\nline2\nline3\n"))
+                .isEqualTo(Arrays.asList("line1", "line2", "line3"));
+    }
+
+    @Test
+    void testLastLineWithoutLineBreak() throws Exception {
+        assertThat(scanLines("line1\nline2"))
+                .isEqualTo(Arrays.asList("line1", "line2"));
+    }
+
+    @Test
+    void testAllLineBreaks() throws Exception {
+        assertThat(scanLines("unix\nmac\rwindows\r\n\r\nlast"))
+                .isEqualTo(Arrays.asList("unix", "mac", "windows", "", "last"));
+    }
+
+    @Test
+    void testReadCommentOnly() throws Exception {
+        assertThat(scanLines("/**/")).isEmpty();
+    }
+
+    @Test
+    void testReadCommentAfterCommentSeparatedByAsteriks() throws Exception {
+        assertThat(scanLines("/**/*/**/")).containsExactly("*");
+    }
+
+    @Test
+    void testReadIncompleteBeginning() throws Exception {
+        assertThat(scanLines("/xy*")).containsExactly("/xy*");
+    }
+
+    @Test
+    void testReadIncompletePrefix() throws Exception {
+        assertThat(scanLines("/")).containsExactly("/");
+    }
+
+    @Test
+    void testReadInfixComment() throws Exception {
+        assertThat(scanLines("prefix/*comment*/suffix")).containsExactly("prefixsuffix");
+    }
+
+    @Test
+    void testReadEnclosedInlineComment() throws Exception {
+        assertThat(scanLines("f\n// c\ns")).containsExactly("f", "", "s");
+    }
+
+    @Test
+    void testAsterixInBlockComment() throws Exception {
+        assertThat(scanLines("/***/abc")).containsExactly("abc");
+    }
+
+    @Test
+    void testAddSkippedLinesMixed() throws Exception {
+        assertThat(scanLines("Just /* a block\n comment\rspanning\r\n3lines*/ and more"))
+                .containsExactly("Just ", "", "", " and more");
+    }
+
+    @Test
+    void testWeirdComment() throws Exception {
+        assertThat(scanLines(
+                "/** Weird block comment ///**//**/import de.skuzzle.sample.Test5;//de.skuzzle.sample.TestIgnored"))
+                        .containsExactly("import de.skuzzle.sample.Test5;");
+    }
+
+    @Test
+    void testCommentInStringLiteral() throws Exception {
+        assertThat(scanLines("@Annotation(\"/* no comment \\\" // */\")//comment"))
+                .containsExactly("@Annotation(\"/* no comment \\\" // */\")");
+    }
+
+    @Test
+    void testCommentInCharLiteral() throws Exception {
+        assertThat(scanLines("char c = '/'; char d = '\\'';//comment"))
+                .containsExactly("char c = '/'; char d = '\\'';");
+    }
+
+    @Test
+    void testDecodeNonAsciiCharacters() throws Exception {
+        assertThat(scanLines("import jävä.ütil.ArrayList; // ä", StandardCharsets.ISO_8859_1))
+                .containsExactly("import jävä.ütil.ArrayList; ");
+    }
+
+    @Test
+    void testNoLimitForSkippedLines() throws Exception {
+        final StringBuilder comment = new StringBuilder("/*");
+        for (int i = 0; i < 10000; ++i) {
+            comment.append("line\n");
+        }
+        comment.append("*/import foo;");
+
+        final List<String> lines = scanLines(comment.toString());
+        assertThat(lines).hasSize(10001);
+        assertThat(lines.get(10000)).isEqualTo("import foo;");
+    }
+
+    @Test
+    void testSupportedCharsets() throws Exception {
+        assertThat(ByteLineScanner.supports(StandardCharsets.UTF_8)).isTrue();
+        assertThat(ByteLineScanner.supports(StandardCharsets.US_ASCII)).isTrue();
+        assertThat(ByteLineScanner.supports(StandardCharsets.ISO_8859_1)).isTrue();
+        assertThat(ByteLineScanner.supports(Charset.forName("windows-1252"))).isTrue();
+        assertThat(ByteLineScanner.supports(StandardCharsets.UTF_16)).isFalse();
+        assertThat(ByteLineScanner.supports(StandardCharsets.UTF_16LE)).isFalse();
+    }
+
+    @Test
+    void testScanBuffer() throws Exception {
+        final ByteBuffer content = ByteBuffer.wrap(
+                "line1 // comment\n/* comment */line2".getBytes(StandardCharsets.UTF_8));
+        final List<String> result = new ArrayList<>();
+        try (ByteLineScanner scanner = ByteLineScanner.scanning(content,
+                StandardCharsets.UTF_8)) {
+            assertThat(scanner.next()).isEqualTo("line1 ");
+            assertThat(content.position()).isEqualTo(17);
+            scanner.forEachRemaining(result::add);
+        }
+        assertThat(result).containsExactly("line2");
+        assertThat(content.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void testReuseBuffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        buffer.put((byte) 'x');
+        final ByteArrayInputStream bytes = new ByteArrayInputStream(
+                "line1\nline2".getBytes(StandardCharsets.UTF_8));
+        final ByteLineScanner scanner = new ByteLineScanner(Channels.newChannel(bytes), buffer,
+                StandardCharsets.UTF_8);
+        final List<String> result = new ArrayList<>();
+        scanner.forEachRemaining(result::add);
+        assertThat(result).containsExactly("line1", "line2");
+    }
+}
@@ -0,0 +1,67 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class ChunkedReadChannelTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+
+    private Path fileOfSize(int size) throws Exception {
+        final Path file = fs.getPath("sample.txt");
+        Files.write(file, new byte[size]);
+        return file;
+    }
+
+    @Test
+    void testChunksGrow() throws Exception {
+        final Path file = fileOfSize(200_000);
+        final ByteBuffer buffer = ByteBuffer.allocate(100_000);
+        try (ChunkedReadChannel subject = new ChunkedReadChannel(Files.newByteChannel(file))) {
+            assertThat(subject.read(buffer)).isEqualTo(1024);
+            buffer.clear();
+            assertThat(subject.read(buffer)).isEqualTo(4 * 1024);
+            buffer.clear();
+            assertThat(subject.read(buffer)).isEqualTo(16 * 1024);
+            buffer.clear();
+            assertThat(subject.read(buffer)).isEqualTo(64 * 1024);
+            buffer.clear();
+            assertThat(subject.read(buffer)).isEqualTo(64 * 1024);
+            assertThat(buffer.limit()).isEqualTo(100_000);
+        }
+    }
+
+    @Test
+    void testCountBytesRead() throws Exception {
+        final Path file = fileOfSize(3000);
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+        try (ChunkedReadChannel subject = new ChunkedReadChannel(Files.newByteChannel(file))) {
+            subject.read(buffer);
+            assertThat(subject.getBytesRead()).isEqualTo(1024);
+            subject.read(buffer);
+            assertThat(subject.getBytesRead()).isEqualTo(3000);
+            assertThat(subject.read(buffer)).isEqualTo(-1);
+            assertThat(subject.getBytesRead()).isEqualTo(3000);
+            assertThat(subject.size()).isEqualTo(3000);
+        }
+    }
+
+    @Test
+    void testReadIntoSmallBuffer() throws Exception {
+        final Path file = fileOfSize(3000);
+        final ByteBuffer buffer = ByteBuffer.allocate(100);
+        try (ChunkedReadChannel subject = new ChunkedReadChannel(Files.newByteChannel(file))) {
+            assertThat(subject.read(buffer)).isEqualTo(100);
+            assertThat(subject.getBytesRead()).isEqualTo(100);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class ConcurrentSourceTreeWalkerTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+    private final AnalyzeStatistics statistics = new AnalyzeStatistics();
+    private final ConcurrentSourceTreeWalker subject = new ConcurrentSourceTreeWalker(
+            WorkerPools.forParallelism(4), statistics);
+    private final SourceFileFilter filter = SourceFileFilter.forRoot(root,
+            Collections.emptyList(), Collections.emptyList());
+
+    private List<Path> listSourceFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(file -> file.toString().endsWith(".java"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testConsumeEveryFileOnce() throws Exception {
+        new SourceTreeGenerator().withFiles(300).withPackages(20).generate(root);
+        Files.write(root.resolve("README.txt"), new byte[0]);
+
+        final Queue<Path> consumed = new ConcurrentLinkedQueue<>();
+        subject.walk(root, filter, consumed::add);
+
+        assertThat(consumed.stream().sorted().collect(Collectors.toList()))
+                .isEqualTo(listSourceFiles());
+        assertThat(statistics.getFilesWalked()).isEqualTo(300);
+    }
+
+    @Test
+    void testConsumeFilesOfLargeDirectory() throws Exception {
+        new SourceTreeGenerator().withFiles(200).withPackages(1).generate(root);
+
+        final Queue<Path> consumed = new ConcurrentLinkedQueue<>();
+        subject.walk(root, filter, consumed::add);
+
+        assertThat(consumed).hasSize(200).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testStopWalking() throws Exception {
+        new SourceTreeGenerator().withFiles(500).withPackages(20).generate(root);
+
+        final Queue<Path> consumed = new ConcurrentLinkedQueue<>();
+        subject.walk(root, filter, file -> {
+            consumed.add(file);
+            subject.stop();
+        });
+
+        assertThat(consumed.size()).isLessThan(500);
+    }
+
+    @Test
+    void testSkipExcludedDirectory() throws Exception {
+        new SourceTreeGenerator().withFiles(100).withPackages(5).generate(root);
+        new SourceTreeGenerator().withFiles(50).generate(root.resolve("generated"));
+
+        final SourceFileFilter excludeGenerated = SourceFileFilter.forRoot(root,
+                Collections.emptyList(), Collections.singletonList("generated/**"));
+        final Queue<Path> consumed = new ConcurrentLinkedQueue<>();
+        subject.walk(root, excludeGenerated, consumed::add);
+
+        assertThat(consumed).hasSize(100)
+                .noneMatch(file -> file.startsWith(root.resolve("generated")));
+    }
+
+    @Test
+    void testWalkNonExistingRoot() throws Exception {
+        final Queue<Path> consumed = new ConcurrentLinkedQueue<>();
+        subject.walk(root, filter, consumed::add);
+
+        assertThat(consumed).isEmpty();
+    }
+
+    @Test
+    void testWalkFileAsRoot() throws Exception {
+        final Path file = new SourceFileBuilder(fs)
+                .atPath("src/Sample.java")
+                .withLines("package de.skuzzle;");
+
+        final Queue<Path> consumed = new ConcurrentLinkedQueue<>();
+        subject.walk(file, filter, consumed::add);
+
+        assertThat(consumed).containsExactly(file);
+    }
+
+    @Test
+    void testPropagateExceptionOfConsumer() throws Exception {
+        new SourceTreeGenerator().withFiles(10).generate(root);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.walk(root, filter, file -> {
+                    throw new IllegalArgumentException();
+                }));
+    }
+}
@@ -0,0 +1,85 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class GroupSelectionCacheTest {
+
+    private static BannedImportGroup group(String... basePackages) {
+        return BannedImportGroup.builder()
+                .withBasePackages(basePackages)
+                .withBannedImports("foo.bar")
+                .build();
+    }
+
+    private static GroupSelectionCache cacheFor(BannedImportGroup... groups) {
+        final BannedImportGroups.Builder builder = BannedImportGroups.builder();
+        for (final BannedImportGroup group : groups) {
+            builder.withGroup(group);
+        }
+        return new GroupSelectionCache(builder.build());
+    }
+
+    @Test
+    void testEnabledForTrailingWildcards() throws Exception {
+        assertThat(cacheFor(group("**"), group("de.*.*"), group("com.foo.**")).isEnabled())
+                .isTrue();
+    }
+
+    @Test
+    void testDisabledForConcreteClass() throws Exception {
+        assertThat(cacheFor(group("**"), group("de.skuzzle.Sample")).isEnabled()).isFalse();
+    }
+
+    @Test
+    void testDisabledForLeadingDoubleWildcard() throws Exception {
+        assertThat(cacheFor(group("**.skuzzle.*")).isEnabled()).isFalse();
+    }
+
+    @Test
+    void testCacheHits() throws Exception {
+        final BannedImportGroup all = group("**");
+        final BannedImportGroup skuzzle = group("de.skuzzle.*");
+        final GroupSelectionCache subject = cacheFor(all, skuzzle);
+
+        assertThat(subject.selectGroupFor("de.skuzzle", QualifiedName.parse("de.skuzzle.A")))
+                .contains(skuzzle);
+        assertThat(subject.selectGroupFor("de.skuzzle", QualifiedName.parse("de.skuzzle.B")))
+                .contains(skuzzle);
+        assertThat(subject.selectGroupFor("de", QualifiedName.parse("de.C")))
+                .contains(all);
+
+        assertThat(subject.getHits()).isEqualTo(1);
+        assertThat(subject.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void testExclusionsAreCheckedPerClass() throws Exception {
+        final BannedImportGroup skuzzle = BannedImportGroup.builder()
+                .withBasePackages("de.skuzzle.*")
+                .withBannedImports("foo.bar")
+                .withExcludedClasses("de.skuzzle.Excluded")
+                .build();
+        final GroupSelectionCache subject = cacheFor(skuzzle);
+
+        assertThat(subject.selectGroupFor("de.skuzzle",
+                QualifiedName.parse("de.skuzzle.Excluded"))).isEmpty();
+        assertThat(subject.selectGroupFor("de.skuzzle",
+                QualifiedName.parse("de.skuzzle.Included"))).contains(skuzzle);
+        assertThat(subject.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void testDisabledDelegates() throws Exception {
+        final BannedImportGroup all = group("**");
+        final BannedImportGroup sample = group("de.skuzzle.Sample");
+        final GroupSelectionCache subject = cacheFor(all, sample);
+
+        assertThat(subject.selectGroupFor("de.skuzzle",
+                QualifiedName.parse("de.skuzzle.Sample"))).contains(sample);
+        assertThat(subject.selectGroupFor("de.skuzzle",
+                QualifiedName.parse("de.skuzzle.Other"))).contains(all);
+        assertThat(subject.getHits() + subject.getMisses()).isZero();
+    }
+}
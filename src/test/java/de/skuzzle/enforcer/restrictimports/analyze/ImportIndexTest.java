@@ -0,0 +1,317 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+import de.skuzzle.enforcer.restrictimports.analyze.SourceFileHeader.Statement;
+
+public class ImportIndexTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("src/main/java");
+    private final Path indexFile = ImportIndex.indexFileFor(
+            fs.getPath("/target/restrict-imports"), root);
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final Function<Path, SourceFileHeader> headerReader = file -> {
+        reads.incrementAndGet();
+        return new SourceFileHeader(ImmutableList.of(
+                Statement.packageStatement(1, "de.skuzzle"),
+                Statement.importStatement(2, "static java.util.Arrays.asList"),
+                Statement.importStatement(3, "java.util." + file.getFileName())));
+    };
+
+    // reports that the header has been read from the first line only
+    private final Function<Path, SourceFileHeader> scanningFirstLine = file -> {
+        reads.incrementAndGet();
+        return new SourceFileHeader(ImmutableList.of(
+                Statement.importStatement(1, "java.util.List")),
+                "import java.util.List;".length() + 1);
+    };
+
+    private Path sourceFile(String... lines) throws IOException {
+        return new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines(lines);
+    }
+
+    private ImportIndex load() {
+        return ImportIndex.load(indexFile, root, StandardCharsets.UTF_8);
+    }
+
+    private void touch(Path file, long millis) throws IOException {
+        Files.setLastModifiedTime(file, FileTime.fromMillis(millis));
+    }
+
+    @Test
+    void testIndexFileDependsOnRoot() throws Exception {
+        final Path directory = fs.getPath("/target");
+        assertThat(ImportIndex.indexFileFor(directory, fs.getPath("src/main/java")))
+                .isNotEqualTo(ImportIndex.indexFileFor(directory, fs.getPath("src/test/java")));
+    }
+
+    @Test
+    void testReadHeaderOnFirstAccess() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex subject = load();
+
+        final SourceFileHeader header = subject.getHeader(file, headerReader);
+
+        assertThat(header).isEqualTo(headerReader.apply(file));
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testUnchangedFileIsNotReadAgain() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex subject = load();
+
+        final SourceFileHeader first = subject.getHeader(file, headerReader);
+        final SourceFileHeader second = subject.getHeader(file, headerReader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testTouchedFileWithSameContentIsNotReadAgain() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        touch(file, 1000);
+        final ImportIndex subject = load();
+        subject.getHeader(file, headerReader);
+
+        touch(file, 2000);
+        subject.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testChangedFileIsReadAgain() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        touch(file, 1000);
+        final ImportIndex subject = load();
+        subject.getHeader(file, headerReader);
+
+        // same size, different content
+        Files.write(file, "import java.util.Set; ".getBytes(StandardCharsets.UTF_8));
+        touch(file, 2000);
+        subject.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testChangeBeyondScannedBytesIsNotReadAgain() throws Exception {
+        final Path file = sourceFile("import java.util.List;", "class Sample {}");
+        touch(file, 1000);
+        final ImportIndex subject = load();
+        subject.getHeader(file, scanningFirstLine);
+
+        // same size, different content after the header
+        Files.write(file, Arrays.asList("import java.util.List;", "class Simple {}"),
+                StandardCharsets.UTF_8);
+        touch(file, 2000);
+        subject.getHeader(file, scanningFirstLine);
+
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testChangeWithinScannedBytesIsReadAgain() throws Exception {
+        final Path file = sourceFile("import java.util.List;", "class Sample {}");
+        touch(file, 1000);
+        final ImportIndex subject = load();
+        subject.getHeader(file, scanningFirstLine);
+
+        Files.write(file, Arrays.asList("import java.util.Set; ", "class Sample {}"),
+                StandardCharsets.UTF_8);
+        touch(file, 2000);
+        subject.getHeader(file, scanningFirstLine);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testSaveAndLoad() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex first = load();
+        final SourceFileHeader expected = first.getHeader(file, headerReader);
+        first.save();
+
+        final ImportIndex second = load();
+        final SourceFileHeader actual = second.getHeader(file, headerReader);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testSaveLoadedIndexAgain() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex first = load();
+        final SourceFileHeader expected = first.getHeader(file, headerReader);
+        first.save();
+
+        final Path otherFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Other.java")
+                .withLines("import java.util.List;");
+        final ImportIndex second = load();
+        second.getHeader(otherFile, headerReader);
+        second.save();
+
+        final ImportIndex third = load();
+        assertThat(third.getHeader(file, headerReader)).isEqualTo(expected);
+        third.getHeader(otherFile, headerReader);
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testDiscardIndexForDifferentCharset() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex first = load();
+        first.getHeader(file, headerReader);
+        first.save();
+
+        final ImportIndex second = ImportIndex.load(indexFile, root,
+                StandardCharsets.ISO_8859_1);
+        second.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testDiscardIndexForDifferentRoot() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex first = load();
+        first.getHeader(file, headerReader);
+        first.save();
+
+        final ImportIndex second = ImportIndex.load(indexFile, fs.getPath("src"),
+                StandardCharsets.UTF_8);
+        second.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testIgnoreCorruptIndexFile() throws Exception {
+        Files.createDirectories(indexFile.getParent());
+        Files.write(indexFile, new byte[] { 0, 0 });
+        final Path file = sourceFile("import java.util.List;");
+
+        final ImportIndex subject = load();
+        subject.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testIgnoreTruncatedIndexFile() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex first = load();
+        first.getHeader(file, headerReader);
+        first.save();
+
+        final byte[] content = Files.readAllBytes(indexFile);
+        Files.write(indexFile, Arrays.copyOf(content, content.length - 10));
+        final ImportIndex second = load();
+        second.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testPruneDeletedFiles() throws Exception {
+        final Path file = sourceFile("import java.util.List;");
+        final ImportIndex first = load();
+        first.getHeader(file, headerReader);
+        first.save();
+
+        Files.delete(file);
+        load().save();
+        final Path recreated = sourceFile("import java.util.List;");
+
+        load().getHeader(recreated, headerReader);
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testDoNotWriteUnmodifiedIndex() throws Exception {
+        load().save();
+
+        assertThat(indexFile).doesNotExist();
+    }
+
+    @Test
+    void testSaveAndLoadOnDefaultFileSystem() throws Exception {
+        final Path tempDir = Files.createTempDirectory("restrict-imports");
+        try {
+            final Path file = Files.write(tempDir.resolve("Sample.java"),
+                    "import java.util.List;".getBytes(StandardCharsets.UTF_8));
+            final Path mappedIndexFile = ImportIndex.indexFileFor(tempDir, tempDir);
+            final ImportIndex first = ImportIndex.load(mappedIndexFile, tempDir,
+                    StandardCharsets.UTF_8);
+            final SourceFileHeader expected = first.getHeader(file, headerReader);
+            first.save();
+
+            final ImportIndex second = ImportIndex.load(mappedIndexFile, tempDir,
+                    StandardCharsets.UTF_8);
+
+            assertThat(second.getHeader(file, headerReader)).isEqualTo(expected);
+            assertThat(reads.get()).isEqualTo(1);
+        } finally {
+            MoreFiles.deleteRecursively(tempDir, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    void testSaveOverLoadedIndexOnDefaultFileSystem() throws Exception {
+        final Path tempDir = Files.createTempDirectory("restrict-imports");
+        try {
+            final Path file = Files.write(tempDir.resolve("Sample.java"),
+                    "import java.util.List;".getBytes(StandardCharsets.UTF_8));
+            final Path otherFile = Files.write(tempDir.resolve("Other.java"),
+                    "import java.util.Set;".getBytes(StandardCharsets.UTF_8));
+            final Path realIndexFile = ImportIndex.indexFileFor(tempDir, tempDir);
+            final ImportIndex first = ImportIndex.load(realIndexFile, tempDir,
+                    StandardCharsets.UTF_8);
+            final SourceFileHeader expected = first.getHeader(file, headerReader);
+            first.getHeader(otherFile, headerReader);
+            first.save();
+
+            // the entry of file stays undecoded while the index file is replaced
+            final ImportIndex second = ImportIndex.load(realIndexFile, tempDir,
+                    StandardCharsets.UTF_8);
+            Files.write(otherFile, "import java.util.Map; // changed"
+                    .getBytes(StandardCharsets.UTF_8));
+            second.getHeader(otherFile, headerReader);
+            second.save();
+
+            final ImportIndex third = ImportIndex.load(realIndexFile, tempDir,
+                    StandardCharsets.UTF_8);
+            assertThat(third.getHeader(file, headerReader)).isEqualTo(expected);
+            third.getHeader(otherFile, headerReader);
+            assertThat(reads.get()).isEqualTo(3);
+        } finally {
+            MoreFiles.deleteRecursively(tempDir, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+}
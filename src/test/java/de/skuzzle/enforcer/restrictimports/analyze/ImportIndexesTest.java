@@ -0,0 +1,110 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class ImportIndexesTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path directory = fs.getPath("/target/restrict-imports");
+    private final Path mainRoot = fs.getPath("/src/main/java");
+    private final Path testRoot = fs.getPath("/src/test/java");
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final Function<Path, SourceFileHeader> headerReader = file -> {
+        reads.incrementAndGet();
+        return new SourceFileHeader(ImmutableList.of());
+    };
+
+    private Path sourceFile(Path root) throws Exception {
+        final Path file = root.resolve("Sample.java");
+        Files.createDirectories(root);
+        Files.write(file, "import java.util.List;".getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private ImportIndexes open() {
+        return ImportIndexes.open(directory, Arrays.asList(mainRoot, testRoot),
+                StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testWriteOneIndexPerRoot() throws Exception {
+        final ImportIndexes subject = open();
+        subject.getHeader(sourceFile(mainRoot), headerReader);
+        subject.getHeader(sourceFile(testRoot), headerReader);
+        subject.save();
+
+        assertThat(ImportIndex.indexFileFor(directory, mainRoot)).exists();
+        assertThat(ImportIndex.indexFileFor(directory, testRoot)).exists();
+        assertThat(subject.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void testShareLoadedIndexesBetweenAnalyses() throws Exception {
+        final Path file = sourceFile(mainRoot);
+        final ImportIndexes first = open();
+        first.getHeader(file, headerReader);
+        first.save();
+
+        final ImportIndexes second = open();
+        second.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(1);
+        assertThat(second.getHits()).isEqualTo(1);
+        assertThat(second.getMisses()).isEqualTo(0);
+    }
+
+    @Test
+    void testRecreateDeletedIndexFile() throws Exception {
+        final Path file = sourceFile(mainRoot);
+        final ImportIndexes first = open();
+        first.getHeader(file, headerReader);
+        first.save();
+        final Path indexFile = ImportIndex.indexFileFor(directory, mainRoot);
+        Files.delete(indexFile);
+
+        final ImportIndexes second = open();
+        second.getHeader(file, headerReader);
+        second.save();
+
+        assertThat(indexFile).exists();
+    }
+
+    @Test
+    void testSelectMostSpecificRoot() throws Exception {
+        final Path nestedRoot = mainRoot.resolve("generated");
+        final Path file = sourceFile(nestedRoot);
+        final ImportIndexes subject = ImportIndexes.open(directory,
+                Arrays.asList(mainRoot, nestedRoot), StandardCharsets.UTF_8);
+        subject.getHeader(file, headerReader);
+        subject.save();
+
+        assertThat(ImportIndex.indexFileFor(directory, nestedRoot)).exists();
+        assertThat(ImportIndex.indexFileFor(directory, mainRoot)).doesNotExist();
+    }
+
+    @Test
+    void testReadFileOutsideOfRoots() throws Exception {
+        final Path file = sourceFile(fs.getPath("/other"));
+        final ImportIndexes subject = open();
+
+        subject.getHeader(file, headerReader);
+        subject.getHeader(file, headerReader);
+
+        assertThat(reads.get()).isEqualTo(2);
+    }
+}
@@ -2,6 +2,7 @@ package de.skuzzle.enforcer.restrictimports.analyze;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -16,7 +17,8 @@ import com.google.common.collect.ImmutableList;
 
 public class ImportMatcherImplTest {
 
-    private final LineSupplier mockLineSupplier = mock(LineSupplier.class);
+    private final LineSupplier mockLineSupplier = mock(LineSupplier.class,
+            CALLS_REAL_METHODS);
     private final ImportMatcherImpl subject = new ImportMatcherImpl(mockLineSupplier);
 
     private final Path path = mock(Path.class);
@@ -139,6 +141,20 @@ public class ImportMatcherImplTest {
                 "de.skuzzle.sample.Test", PackagePattern.parse("de.skuzzle.sample.**")));
     }
 
+    @Test
+    public void testDefaultPackageWithoutMatchingGroup() throws Exception {
+        when(this.mockLineSupplier.lines(this.path)).thenReturn(ImmutableList.of(
+                "import de.skuzzle.sample.Test;").stream());
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("de.skuzzle.**")
+                        .withBannedImports("de.skuzzle.sample.**"))
+                .build();
+
+        assertThat(subject.matchFile(path, groups)).isEmpty();
+    }
+
     @Test
     public void testAbortOnNonImportLine() throws Exception {
         when(this.mockLineSupplier.lines(this.path)).thenReturn(ImmutableList.of(
@@ -167,4 +183,24 @@ public class ImportMatcherImplTest {
                         .build());
         assertThat(matches).isEmpty();
     }
+
+    @Test
+    public void testRecordStatistics() throws Exception {
+        final AnalyzeStatistics statistics = new AnalyzeStatistics();
+        final ImportMatcherImpl matcher = new ImportMatcherImpl(mockLineSupplier, null,
+                statistics);
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("de.skuzzle.sample.*"))
+                .build();
+
+        matcher.matchFile(this.path, groups);
+
+        // the last line is not an import statement because it lacks the semicolon
+        assertThat(statistics.getLinesScanned()).isEqualTo(7);
+        assertThat(statistics.getImportsChecked()).isEqualTo(4);
+        assertThat(statistics.getImportsMatched()).isEqualTo(3);
+        assertThat(statistics.getGroupLookups()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,121 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+public class MatchCollectorTest {
+
+    private final BannedImportGroup group1 = BannedImportGroup.builder()
+            .withBasePackages("de.skuzzle.**")
+            .withBannedImports("java.util.*")
+            .build();
+    private final BannedImportGroup group2 = BannedImportGroup.builder()
+            .withBasePackages("com.**")
+            .withBannedImports("java.io.*")
+            .build();
+    private final BannedImportGroups groups = BannedImportGroups.builder()
+            .withGroup(group1)
+            .withGroup(group2)
+            .build();
+
+    private MatchedFile.Builder file(String path, BannedImportGroup group, int violations) {
+        final Path sourceFile = Paths.get(path);
+        final MatchedFile.Builder builder = MatchedFile.forSourceFile(sourceFile)
+                .matchedBy(group);
+        for (int i = 0; i < violations; ++i) {
+            builder.withMatchAt(i + 1, "java.util.List" + i, PackagePattern.parse("java.util.*"));
+        }
+        return builder;
+    }
+
+    @Test
+    void testUnlimitedKeepsAllMatchesSorted() throws Exception {
+        final MatchCollector subject = new MatchCollector(groups, Integer.MAX_VALUE);
+        subject.fileMatched(file("c.java", group1, 2).build());
+        subject.fileMatched(file("a.java", group2, 1).build());
+        subject.fileMatched(file("b.java", group1, 3).build());
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(file("a.java", group2, 1),
+                        file("b.java", group1, 3),
+                        file("c.java", group1, 2))
+                .build();
+        assertThat(subject.toResult()).isEqualTo(expected);
+    }
+
+    @Test
+    void testKeepFilesWithSmallestPaths() throws Exception {
+        final MatchCollector subject = new MatchCollector(groups, 3);
+        subject.fileMatched(file("d.java", group1, 2).build());
+        subject.fileMatched(file("c.java", group2, 1).build());
+        subject.fileMatched(file("b.java", group1, 1).build());
+        subject.fileMatched(file("a.java", group1, 1).build());
+
+        final AnalyzeResult result = subject.toResult();
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(file("a.java", group1, 1),
+                        file("b.java", group1, 1),
+                        file("c.java", group2, 1))
+                .withOmittedViolations(group1, 2)
+                .build();
+        assertThat(result).isEqualTo(expected);
+        assertThat(result.isTruncated()).isTrue();
+        assertThat(result.getViolationCount()).isEqualTo(5);
+        assertThat(result.getViolationCountByGroup())
+                .containsEntry(group1, 4)
+                .containsEntry(group2, 1);
+    }
+
+    @Test
+    void testTruncateLastReportedFile() throws Exception {
+        final MatchCollector subject = new MatchCollector(groups, 3);
+        subject.fileMatched(file("b.java", group1, 3).build());
+        subject.fileMatched(file("a.java", group2, 2).build());
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(file("a.java", group2, 2),
+                        file("b.java", group1, 1))
+                .withOmittedViolations(group1, 2)
+                .build();
+        assertThat(subject.toResult()).isEqualTo(expected);
+    }
+
+    @Test
+    void testResultIndependentOfOrder() throws Exception {
+        final MatchCollector first = new MatchCollector(groups, 4);
+        final MatchCollector second = new MatchCollector(groups, 4);
+        for (int i = 0; i < 10; ++i) {
+            first.fileMatched(file(i + ".java", group1, 1 + i % 3).build());
+            second.fileMatched(file((9 - i) + ".java", group1, 1 + (9 - i) % 3).build());
+        }
+
+        assertThat(first.toResult()).isEqualTo(second.toResult());
+    }
+
+    @Test
+    void testReportNothing() throws Exception {
+        final MatchCollector subject = new MatchCollector(groups, 0);
+        subject.fileMatched(file("a.java", group2, 2).build());
+        subject.fileMatched(file("b.java", group1, 1).build());
+
+        final AnalyzeResult result = subject.toResult();
+
+        assertThat(result.getFileMatches()).isEmpty();
+        assertThat(result.bannedImportsFound()).isTrue();
+        assertThat(result.getViolationCountByGroup().keySet()).containsExactly(group1, group2);
+    }
+
+    @Test
+    void testNoMatches() throws Exception {
+        final AnalyzeResult result = new MatchCollector(groups, 10).toResult();
+
+        assertThat(result.bannedImportsFound()).isFalse();
+        assertThat(result.isTruncated()).isFalse();
+        assertThat(result.getViolationCount()).isEqualTo(0);
+    }
+}
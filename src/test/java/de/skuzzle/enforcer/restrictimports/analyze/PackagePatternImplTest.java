@@ -95,7 +95,9 @@ public class PackagePatternImplTest {
 
     @Test
     public void testVerifyEquals() throws Exception {
-        EqualsVerifier.forClass(PackagePatternImpl.class).verify();
+        EqualsVerifier.forClass(PackagePatternImpl.class)
+                .withIgnoredFields("name")
+                .verify();
     }
 
     @Test
@@ -221,6 +223,16 @@ public class PackagePatternImplTest {
                 .matches(PackagePattern.parse("com.foo.*"))).isFalse();
     }
 
+    @Test
+    public void testStaticPatternMatchesPattern() throws Exception {
+        assertThat(PackagePattern.parse("static com.foo.**")
+                .matches(PackagePattern.parse("static com.foo.Class.*"))).isTrue();
+        assertThat(PackagePattern.parse("static com.foo.**")
+                .matches(PackagePattern.parse("com.foo.Class"))).isFalse();
+        assertThat(PackagePattern.parse("com.foo.**")
+                .matches(PackagePattern.parse("static com.foo.Class"))).isFalse();
+    }
+
     @Test
     public void testStaticImport() throws Exception {
         assertThat(PackagePattern.parse("static com.foo.bar.*")
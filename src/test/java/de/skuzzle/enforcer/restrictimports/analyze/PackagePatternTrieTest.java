@@ -0,0 +1,136 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PackagePatternTrieTest {
+
+    private static PackagePatternTrie trie(String... patterns) {
+        return PackagePatternTrie.of(PackagePattern.parseAll(Arrays.asList(patterns)));
+    }
+
+    @Test
+    void testEmpty() throws Exception {
+        final PackagePatternTrie subject = trie();
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util.List"))).isFalse();
+        assertThat(subject.mostSpecificMatch(QualifiedName.parse("java.util.List"))).isEmpty();
+    }
+
+    @Test
+    void testLiteral() throws Exception {
+        final PackagePatternTrie subject = trie("java.util.List");
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util.List"))).isTrue();
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util.ArrayList"))).isFalse();
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util"))).isFalse();
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util.List.Inner"))).isFalse();
+    }
+
+    @Test
+    void testWildcards() throws Exception {
+        final PackagePatternTrie subject = trie("java.*.List", "de.**.Foo");
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util.List"))).isTrue();
+        assertThat(subject.anyMatches(QualifiedName.parse("java.util.concurrent.List"))).isFalse();
+        assertThat(subject.anyMatches(QualifiedName.parse("de.skuzzle.Foo"))).isTrue();
+        assertThat(subject.anyMatches(QualifiedName.parse("de.skuzzle.enforcer.Foo"))).isTrue();
+        assertThat(subject.anyMatches(QualifiedName.parse("de.Foo"))).isFalse();
+    }
+
+    @Test
+    void testStatic() throws Exception {
+        final PackagePatternTrie subject = trie("static java.util.Collections.*");
+        assertThat(subject.anyMatches(
+                QualifiedName.parse("static java.util.Collections.emptyList"))).isTrue();
+        assertThat(subject.anyMatches(
+                QualifiedName.parse("java.util.Collections.emptyList"))).isFalse();
+    }
+
+    @Test
+    void testMostSpecificMatch() throws Exception {
+        final PackagePatternTrie subject = trie("java.**", "java.util.*", "java.util.List");
+        assertThat(subject.mostSpecificMatch(QualifiedName.parse("java.util.List")))
+                .contains(PackagePattern.parse("java.util.List"));
+        assertThat(subject.mostSpecificMatch(QualifiedName.parse("java.util.Set")))
+                .contains(PackagePattern.parse("java.util.*"));
+        assertThat(subject.mostSpecificMatch(QualifiedName.parse("java.io.File")))
+                .contains(PackagePattern.parse("java.**"));
+    }
+
+    @Test
+    void testMostSpecificMatchPrefersFirstOnTie() throws Exception {
+        final PackagePatternTrie subject = trie("java.*.List", "java.util.*");
+        assertThat(subject.mostSpecificMatch(QualifiedName.parse("java.util.List")))
+                .contains(PackagePattern.parse("java.*.List"));
+    }
+
+    @Test
+    void testSameResultAsPackagePattern() throws Exception {
+        final List<String> patterns = Arrays.asList(
+                "**", "**.b", "a.**", "**.a.b", "a.**.c", "*.b.**", "**.*", "a.*.**.d",
+                "a.b.c", "static a.**", "static **.c");
+        final List<String> names = Arrays.asList(
+                "a", "b", "a.b", "b.a", "a.b.c", "x.a.b", "x.a.c.a.b", "a.c.b.c", "a.x.y.d",
+                "a.b.a.b", "a.x.d.d", "static a.b", "static x.c", "a.b.c.d.e");
+
+        for (final String pattern : patterns) {
+            final PackagePattern packagePattern = PackagePattern.parse(pattern);
+            final PackagePatternTrie subject = trie(pattern);
+            for (final String name : names) {
+                assertThat(subject.anyMatches(QualifiedName.parse(name)))
+                        .as("%s matches %s", pattern, name)
+                        .isEqualTo(packagePattern.matches(name));
+            }
+        }
+    }
+
+    @Test
+    void testCandidatesBelow() throws Exception {
+        final PackagePatternTrie subject = trie("com.acme.core.**", "de.*.Sample", "a.b");
+
+        assertThat(subject.candidatesBelow(QualifiedName.parse("com")).stream())
+                .containsExactly(0);
+        assertThat(subject.candidatesBelow(QualifiedName.parse("com.acme.core.impl")).stream())
+                .containsExactly(0);
+        assertThat(subject.candidatesBelow(QualifiedName.parse("com.acme.legacy")).stream())
+                .isEmpty();
+        assertThat(subject.candidatesBelow(QualifiedName.parse("de.skuzzle")).stream())
+                .containsExactly(1);
+        assertThat(subject.candidatesBelow(QualifiedName.parse("de.skuzzle.sub")).stream())
+                .isEmpty();
+        assertThat(subject.candidatesBelow(QualifiedName.parse("a")).stream())
+                .containsExactly(2);
+        assertThat(subject.candidatesBelow(QualifiedName.parse("a.b")).stream())
+                .isEmpty();
+    }
+
+    @Test
+    void testCandidatesBelowContainAllMatchingPatterns() throws Exception {
+        final List<String> patterns = Arrays.asList(
+                "**", "**.b", "a.**", "**.a.b", "a.**.c", "*.b.**", "**.*", "a.*.**.d",
+                "a.b.c");
+        final List<String> names = Arrays.asList(
+                "a.b", "b.a", "a.b.c", "x.a.b", "x.a.c.a.b", "a.c.b.c", "a.x.y.d",
+                "a.b.a.b", "a.x.d.d", "a.b.c.d.e");
+
+        final PackagePatternTrie subject = trie(patterns.toArray(new String[0]));
+        for (final String name : names) {
+            final String[] segments = name.split("\\.");
+            for (int length = 1; length < segments.length; ++length) {
+                final String prefix = String.join(".",
+                        Arrays.copyOf(segments, length));
+                final BitSet candidates = subject.candidatesBelow(QualifiedName.parse(prefix));
+                for (int i = 0; i < patterns.size(); ++i) {
+                    if (PackagePattern.parse(patterns.get(i)).matches(name)) {
+                        assertThat(candidates.get(i))
+                                .as("%s is candidate below %s", patterns.get(i), prefix)
+                                .isTrue();
+                    }
+                }
+            }
+        }
+    }
+}
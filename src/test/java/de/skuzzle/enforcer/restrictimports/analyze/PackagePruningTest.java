@@ -0,0 +1,94 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class PackagePruningTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+    private final BannedImportGroups groups = BannedImportGroups.builder()
+            .withGroup(BannedImportGroup.builder()
+                    .withBasePackages("com.acme.core.**")
+                    .withBannedImports("java.util.Vector"))
+            .build();
+
+    private PackagePruning pruning(boolean enabled) {
+        final AnalyzerSettings settings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withPackagePruning(enabled)
+                .build();
+        return PackagePruning.create(settings, groups);
+    }
+
+    private static SourceFileHeader header(String packageName) {
+        return new SourceFileHeader(Collections.singletonList(
+                SourceFileHeader.Statement.packageStatement(1, packageName)));
+    }
+
+    @Test
+    void testSkipIrrelevantPackage() throws Exception {
+        final PackagePruning subject = pruning(true);
+
+        assertThat(subject.canSkip(root, root.resolve("com"))).isFalse();
+        assertThat(subject.canSkip(root, root.resolve("com/acme/core"))).isFalse();
+        assertThat(subject.canSkip(root, root.resolve("com/acme/legacy"))).isTrue();
+        assertThat(subject.canSkip(root, root.resolve("org"))).isTrue();
+        assertThat(subject.getPrunedDirectoryCount()).isEqualTo(2);
+    }
+
+    @Test
+    void testNeverSkipNonIdentifierDirectory() throws Exception {
+        final PackagePruning subject = pruning(true);
+
+        assertThat(subject.canSkip(root, root.resolve("META-INF"))).isFalse();
+        assertThat(subject.canSkip(root, root.resolve("com/1.0"))).isFalse();
+    }
+
+    @Test
+    void testDisabled() throws Exception {
+        final PackagePruning subject = pruning(false);
+
+        assertThat(subject.canSkip(root, root.resolve("org"))).isFalse();
+    }
+
+    @Test
+    void testSkippedDirectoriesVerifiedByMatchingPackages() throws Exception {
+        final PackagePruning subject = pruning(true);
+        subject.canSkip(root, root.resolve("com/acme/legacy"));
+        subject.verifyPackage(root.resolve("com/acme/core/Core.java"),
+                header("com.acme.core"));
+
+        assertThat(subject.getPackageMismatch(root)).isEmpty();
+        assertThat(subject.getUnverifiedDirectories(root)).isEmpty();
+    }
+
+    @Test
+    void testSkippedDirectoriesUnverifiedByMismatchingPackage() throws Exception {
+        final PackagePruning subject = pruning(true);
+        subject.canSkip(root, root.resolve("com/acme/legacy"));
+        final Path misplaced = root.resolve("com/acme/core/Misplaced.java");
+        subject.verifyPackage(misplaced, header("com.acme.other"));
+
+        assertThat(subject.getPackageMismatch(root)).contains(misplaced);
+        assertThat(subject.getUnverifiedDirectories(root))
+                .containsExactly(root.resolve("com/acme/legacy"));
+    }
+
+    @Test
+    void testDefaultPackageInRoot() throws Exception {
+        final PackagePruning subject = pruning(true);
+        subject.verifyPackage(root.resolve("Sample.java"),
+                new SourceFileHeader(Collections.emptyList()));
+
+        assertThat(subject.getPackageMismatch(root)).isEmpty();
+    }
+}
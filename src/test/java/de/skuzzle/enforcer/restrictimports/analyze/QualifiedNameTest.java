@@ -0,0 +1,64 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class QualifiedNameTest {
+
+    private static String[] segments(QualifiedName name) {
+        final String[] result = new String[name.getSegmentCount()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = name.getSegment(i);
+        }
+        return result;
+    }
+
+    @Test
+    void testSegments() throws Exception {
+        final QualifiedName subject = QualifiedName.parse("java.util.List");
+        assertThat(subject.isStatic()).isFalse();
+        assertThat(segments(subject)).containsExactly("java", "util", "List");
+        assertThat(subject.toString()).isEqualTo("java.util.List");
+    }
+
+    @Test
+    void testStatic() throws Exception {
+        final QualifiedName subject = QualifiedName.parse("static java.util.Collections.emptyList");
+        assertThat(subject.isStatic()).isTrue();
+        assertThat(segments(subject)).containsExactly("java", "util", "Collections", "emptyList");
+        assertThat(subject.toString()).isEqualTo("static java.util.Collections.emptyList");
+    }
+
+    @Test
+    void testSegmentEquals() throws Exception {
+        final QualifiedName subject = QualifiedName.parse("static java.util");
+        assertThat(subject.segmentEquals(0, "java")).isTrue();
+        assertThat(subject.segmentEquals(0, "jav")).isFalse();
+        assertThat(subject.segmentEquals(0, "javax")).isFalse();
+        assertThat(subject.segmentEquals(1, "util")).isTrue();
+    }
+
+    @Test
+    void testSameSegmentsAsStringSplit() throws Exception {
+        for (final String name : Arrays.asList("", "a", "a.b", ".", "..", "a.", "a..",
+                ".a", "a..b", "many.segments.in.this.name.to.exceed.the.initial.capacity")) {
+            assertThat(segments(QualifiedName.parse(name)))
+                    .as("segments of '%s'", name)
+                    .containsExactly(name.split("\\."));
+            assertThat(segments(QualifiedName.parse("static " + name)))
+                    .as("segments of 'static %s'", name)
+                    .containsExactly(name.split("\\."));
+        }
+    }
+
+    @Test
+    void testEquals() throws Exception {
+        assertThat(QualifiedName.parse("a.b")).isEqualTo(QualifiedName.parse("a.b"));
+        assertThat(QualifiedName.parse("a.b").hashCode())
+                .isEqualTo(QualifiedName.parse("a.b").hashCode());
+        assertThat(QualifiedName.parse("a.b")).isNotEqualTo(QualifiedName.parse("static a.b"));
+    }
+}
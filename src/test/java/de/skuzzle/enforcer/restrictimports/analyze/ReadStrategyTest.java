@@ -0,0 +1,25 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import org.junit.jupiter.api.Test;
+
+public class ReadStrategyTest {
+
+    @Test
+    void testFromString() throws Exception {
+        assertThat(ReadStrategy.fromString("stream")).isEqualTo(ReadStrategy.STREAM);
+        assertThat(ReadStrategy.fromString(" MAPPED ")).isEqualTo(ReadStrategy.MAPPED);
+        assertThat(ReadStrategy.fromString("pooled-buffer"))
+                .isEqualTo(ReadStrategy.POOLED_BUFFER);
+        assertThat(ReadStrategy.fromString("POOLED_BUFFER"))
+                .isEqualTo(ReadStrategy.POOLED_BUFFER);
+    }
+
+    @Test
+    void testFromStringUnknown() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ReadStrategy.fromString("random-access"));
+    }
+}
@@ -0,0 +1,152 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class SkipCommentsByteLineSupplierTest {
+
+    private static final List<String> LINES = Arrays.asList(
+            "/* license */",
+            "package de.skuzzle; // comment",
+            "import java.util.List;");
+    private static final List<String> EXPECTED = Arrays.asList(
+            "",
+            "package de.skuzzle; ",
+            "import java.util.List;");
+
+    // memory mapping is only supported by the default file system
+    private Path tempDir;
+    private Path file;
+    private final ReadStatistics statistics = new ReadStatistics();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        this.tempDir = Files.createTempDirectory("restrict-imports");
+        this.file = Files.write(tempDir.resolve("Sample.java"), LINES, StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(tempDir);
+    }
+
+    private List<String> readLines(LineSupplier subject, Path path) throws IOException {
+        try (Stream<String> lines = subject.lines(path)) {
+            return lines.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testStream() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.STREAM, 0);
+
+        assertThat(readLines(subject, file)).isEqualTo(EXPECTED);
+        assertThat(statistics.getBytesRead()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void testMapped() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.MAPPED, 0);
+
+        assertThat(readLines(subject, file)).isEqualTo(EXPECTED);
+        assertThat(statistics.getFiles()).isEqualTo(1);
+        assertThat(statistics.getBytesRead()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void testMappedOnlyHeader() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.MAPPED, 0);
+
+        try (Stream<String> lines = subject.lines(file)) {
+            assertThat(lines.findFirst()).contains("");
+        }
+        assertThat(statistics.getBytesRead()).isEqualTo(LINES.get(0).length() + 1);
+        assertThat(statistics.getFileSize()).isEqualTo(Files.size(file));
+    }
+
+    @Test
+    void testReportBytesRead() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.MAPPED, 0);
+        final AtomicLong bytesRead = new AtomicLong(-1);
+
+        try (Stream<String> lines = subject.lines(file, bytesRead::set)) {
+            assertThat(lines.findFirst()).contains("");
+        }
+        assertThat(bytesRead.get()).isEqualTo(LINES.get(0).length() + 1);
+    }
+
+    @Test
+    void testMappedBelowThreshold() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.MAPPED, Files.size(file) + 1);
+
+        assertThat(readLines(subject, file)).isEqualTo(EXPECTED);
+    }
+
+    @Test
+    void testMappedFallbackIfNotSupported() throws Exception {
+        final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+        final Path jimfsFile = Files.write(fs.getPath("Sample.java"), LINES,
+                StandardCharsets.UTF_8);
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.MAPPED, 0);
+
+        assertThat(readLines(subject, jimfsFile)).isEqualTo(EXPECTED);
+        assertThat(statistics.getBytesRead()).isEqualTo(Files.size(jimfsFile));
+    }
+
+    @Test
+    void testMappedEmptyFile() throws Exception {
+        Files.write(file, Collections.emptyList(), StandardCharsets.UTF_8);
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.MAPPED, 0);
+
+        assertThat(readLines(subject, file)).isEmpty();
+    }
+
+    @Test
+    void testPooledBuffer() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.POOLED_BUFFER, 0);
+
+        // reading twice reuses the buffer
+        assertThat(readLines(subject, file)).isEqualTo(EXPECTED);
+        assertThat(readLines(subject, file)).isEqualTo(EXPECTED);
+        assertThat(statistics.getFiles()).isEqualTo(2);
+    }
+
+    @Test
+    void testPooledBufferConcurrentlyOpenStreams() throws Exception {
+        final LineSupplier subject = new SkipCommentsByteLineSupplier(StandardCharsets.UTF_8,
+                statistics, ReadStrategy.POOLED_BUFFER, 0);
+
+        try (Stream<String> first = subject.lines(file);
+                Stream<String> second = subject.lines(file)) {
+            assertThat(second.collect(Collectors.toList())).isEqualTo(EXPECTED);
+            assertThat(first.collect(Collectors.toList())).isEqualTo(EXPECTED);
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package de.skuzzle.enforcer.restrictimports.analyze;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
@@ -18,7 +18,7 @@ public class SkipCommentsLineSupplierTest {
 
     private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
     private final LineSupplier subject = new SkipCommentsLineSupplier(
-            StandardCharsets.UTF_8, 4);
+            StandardCharsets.UTF_8);
 
     @Test
     void testNoComments() throws Exception {
@@ -71,13 +71,33 @@ public class SkipCommentsLineSupplierTest {
     }
 
     @Test
-    void testCommentBufferOverflow() throws Exception {
+    void testLongBlockComment() throws Exception {
         final Path file = new SourceFileBuilder(fs)
                 .atPath("src/sample.txt")
                 .withLines("line/*1", " ", " ", " ", " ", " ", " ", "line*/1");
-        assertThatExceptionOfType(CommentBufferOverflowException.class)
-                .isThrownBy(() -> subject.lines(file).count())
-                .withMessageContaining("4")
-                .withMessageContaining("7");
+
+        assertThat(subject.lines(file).collect(Collectors.toList()))
+                .isEqualTo(Arrays.asList("line", "", "", "", "", "", "", "1"));
+    }
+
+    @Test
+    void testOnlyReadHeaderOfHugeFile() throws Exception {
+        final String[] lines = new String[100_000];
+        Arrays.fill(lines, "    private String field = \"value\";");
+        lines[0] = "package de.skuzzle;";
+        final Path file = new SourceFileBuilder(fs)
+                .atPath("src/sample.txt")
+                .withLines(lines);
+
+        final ReadStatistics statistics = new ReadStatistics();
+        final LineSupplier supplier = new SkipCommentsLineSupplier(StandardCharsets.UTF_8,
+                statistics);
+        try (Stream<String> stream = supplier.lines(file)) {
+            assertThat(stream.findFirst()).contains("package de.skuzzle;");
+        }
+
+        assertThat(statistics.getFiles()).isEqualTo(1);
+        assertThat(statistics.getBytesRead()).isEqualTo(ChunkedReadChannel.INITIAL_CHUNK_SIZE);
+        assertThat(statistics.getFileSize()).isGreaterThan(3_000_000);
     }
 }
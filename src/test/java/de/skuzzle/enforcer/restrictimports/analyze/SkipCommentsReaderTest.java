@@ -0,0 +1,138 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.io.CharStreams;
+
+public class SkipCommentsReaderTest {
+
+    private String readString(String in) {
+        // use a tiny buffer to also cover tokens that span multiple chunks
+        try (final Reader r = new SkipCommentsReader(new StringReader(in), 3)) {
+            return CharStreams.toString(r);
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void testReadCommentOnly() {
+        assertThat(readString("/**/")).isEqualTo("");
+    }
+
+    @Test
+    public void testReadCommentWithAsteriksContent() {
+        assertThat(readString("/** */")).isEqualTo("");
+    }
+
+    @Test
+    public void testReadCommentAfterComment() {
+        assertThat(readString("/**//**/")).isEqualTo("");
+    }
+
+    @Test
+    public void testReadCommentAfterCommentSeparatedByAsteriks() {
+        assertThat(readString("/**/*/**/")).isEqualTo("*");
+    }
+
+    @Test
+    public void testReadIncompleteBeginning() {
+        assertThat(readString("/xy*")).isEqualTo("/xy*");
+    }
+
+    @Test
+    public void testReadInfixComment() {
+        assertThat(readString("prefix/*comment*/suffix")).isEqualTo("prefixsuffix");
+    }
+
+    @Test
+    public void testReadEos() {
+        assertThat(readString("/*")).isEqualTo("");
+    }
+
+    @Test
+    public void testReadIncompletePrefix() {
+        assertThat(readString("/")).isEqualTo("/");
+    }
+
+    @Test
+    public void testReadEmptyInlineComment() {
+        assertThat(readString("//")).isEqualTo("");
+    }
+
+    @Test
+    public void testReadEnclosedInlineComment() {
+        assertThat(readString("f\n// c\ns")).isEqualTo("f\n\ns");
+    }
+
+    @Test
+    public void testReadInlineCommentKeepsWindowsLineBreak() {
+        assertThat(readString("f// c\r\ns")).isEqualTo("f\r\ns");
+    }
+
+    @Test
+    public void testSkipCommentInTickLiteral() {
+        assertThat(readString("'string'")).isEqualTo("'string'");
+    }
+
+    @Test
+    public void testSkipCommentInStringLiteral() {
+        assertThat(readString("\"/* \\\" // */\"//comment"))
+                .isEqualTo("\"/* \\\" // */\"");
+    }
+
+    @Test
+    void testAddSkippedLinesUnix() throws Exception {
+        assertThat(readString("Just /* a block\n comment\nspanning\n3lines*/ and more"))
+                .isEqualTo("Just \n\n\n and more");
+    }
+
+    @Test
+    void testAddSkippedLinesMac() throws Exception {
+        assertThat(readString("Just /* a block\r comment\rspanning\r3lines*/ and more"))
+                .isEqualTo("Just \n\n\n and more");
+    }
+
+    @Test
+    void testAddSkippedLinesWindows() throws Exception {
+        assertThat(readString("Just /* a block\r\n comment\r\nspanning\r\n3lines*/ and more"))
+                .isEqualTo("Just \n\n\n and more");
+    }
+
+    @Test
+    void testAddSkippedLinesMixed() throws Exception {
+        assertThat(readString("Just /* a block\n comment\rspanning\r\n3lines*/ and more"))
+                .isEqualTo("Just \n\n\n and more");
+    }
+
+    @Test
+    void testNoLimitForSkippedLines() throws Exception {
+        final StringBuilder comment = new StringBuilder("/*");
+        for (int i = 0; i < 10000; ++i) {
+            comment.append("line\n");
+        }
+        comment.append("*/import foo;");
+
+        final String result = readString(comment.toString());
+        assertThat(result).hasSize(10000 + "import foo;".length());
+        assertThat(result).endsWith("\nimport foo;");
+    }
+
+    @Test
+    void testAsterixInBlockComment() throws Exception {
+        assertThat(readString("/***/abc")).isEqualTo("abc");
+    }
+
+    @Test
+    void testWeirdComment() throws Exception {
+        final String result = readString(
+                "/** Weird block comment ///**//**/import de.skuzzle.sample.Test5;//de.skuzzle.sample.TestIgnored");
+        assertThat(result).isEqualTo("import de.skuzzle.sample.Test5;");
+    }
+}
@@ -13,6 +13,7 @@ class SourceFileBuilder {
     private final FileSystem mockFileSystem;
     private Path file;
     private Charset charset = StandardCharsets.UTF_8;
+    private String lineSeparator = System.lineSeparator();
 
     public SourceFileBuilder(FileSystem mockFileSystem) {
         this.mockFileSystem = mockFileSystem;
@@ -29,14 +30,32 @@ class SourceFileBuilder {
         return this;
     }
 
+    public SourceFileBuilder atPath(Path file) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return this;
+    }
+
+    public SourceFileBuilder withLineSeparator(String lineSeparator) {
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
     public SourceFileBuilder witchCharset(Charset charset) {
         this.charset = charset;
         return this;
     }
 
     public Path withLines(CharSequence... lines) throws IOException {
-        final Iterable<? extends CharSequence> it = Arrays.stream(lines)::iterator;
-        Files.write(file, it, charset);
+        return withLines(Arrays.asList(lines));
+    }
+
+    public Path withLines(Iterable<? extends CharSequence> lines) throws IOException {
+        final StringBuilder content = new StringBuilder();
+        for (final CharSequence line : lines) {
+            content.append(line).append(lineSeparator);
+        }
+        Files.write(file, content.toString().getBytes(charset));
         return file.toAbsolutePath();
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class SourceFileFilterTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+
+    private SourceFileFilter filter(List<String> includes, List<String> excludes) {
+        return SourceFileFilter.forRoot(root, includes, excludes);
+    }
+
+    private SourceFileFilter filter() {
+        return filter(Collections.emptyList(), Collections.emptyList());
+    }
+
+    private Path file(String path) throws Exception {
+        return new SourceFileBuilder(fs)
+                .atPath(root.resolve(path))
+                .withLines("package de.skuzzle;");
+    }
+
+    private boolean isSourceFile(SourceFileFilter filter, Path file) throws Exception {
+        return filter.isSourceFile(file, Files.readAttributes(file, BasicFileAttributes.class,
+                LinkOption.NOFOLLOW_LINKS));
+    }
+
+    @Test
+    void testJavaSourceFile() throws Exception {
+        assertThat(isSourceFile(filter(), file("de/skuzzle/Sample.java"))).isTrue();
+    }
+
+    @Test
+    void testJavaSourceFileIgnoreCase() throws Exception {
+        assertThat(isSourceFile(filter(), file("de/skuzzle/Sample.JAVA"))).isTrue();
+    }
+
+    @Test
+    void testOtherFile() throws Exception {
+        assertThat(isSourceFile(filter(), file("de/skuzzle/Sample.txt"))).isFalse();
+        assertThat(isSourceFile(filter(), file("java"))).isFalse();
+    }
+
+    @Test
+    void testDirectoryWithJavaSuffix() throws Exception {
+        final Path directory = Files.createDirectories(root.resolve("de/skuzzle.java"));
+
+        assertThat(isSourceFile(filter(), directory)).isFalse();
+    }
+
+    @Test
+    void testSymbolicLinkToDirectory() throws Exception {
+        final Path directory = Files.createDirectories(root.resolve("de/skuzzle"));
+        final Path link = Files.createSymbolicLink(root.resolve("Link.java"), directory);
+
+        assertThat(isSourceFile(filter(), link)).isFalse();
+    }
+
+    @Test
+    void testSymbolicLinkToFile() throws Exception {
+        final Path file = file("de/skuzzle/Sample.java");
+        final Path link = Files.createSymbolicLink(root.resolve("Link.java"), file);
+
+        assertThat(isSourceFile(filter(), link)).isTrue();
+    }
+
+    @Test
+    void testInclude() throws Exception {
+        final SourceFileFilter subject = filter(Arrays.asList("**/api/**"),
+                Collections.emptyList());
+
+        assertThat(isSourceFile(subject, file("de/skuzzle/api/Sample.java"))).isTrue();
+        assertThat(isSourceFile(subject, file("api/Sample.java"))).isTrue();
+        assertThat(isSourceFile(subject, file("de/skuzzle/impl/Sample.java"))).isFalse();
+    }
+
+    @Test
+    void testExclude() throws Exception {
+        final SourceFileFilter subject = filter(Collections.emptyList(),
+                Arrays.asList("**/*Test.java"));
+
+        assertThat(isSourceFile(subject, file("de/skuzzle/SampleTest.java"))).isFalse();
+        assertThat(isSourceFile(subject, file("SampleTest.java"))).isFalse();
+        assertThat(isSourceFile(subject, file("de/skuzzle/Sample.java"))).isTrue();
+    }
+
+    @Test
+    void testExcludeWinsOverInclude() throws Exception {
+        final SourceFileFilter subject = filter(Arrays.asList("de/**"),
+                Arrays.asList("de/skuzzle/internal/**"));
+
+        assertThat(isSourceFile(subject, file("de/skuzzle/Sample.java"))).isTrue();
+        assertThat(isSourceFile(subject, file("de/skuzzle/internal/Sample.java"))).isFalse();
+    }
+
+    @Test
+    void testExcludedDirectory() throws Exception {
+        final SourceFileFilter subject = filter(Collections.emptyList(),
+                Arrays.asList("**/generated/**"));
+
+        assertThat(subject.isExcludedDirectory(root.resolve("generated"))).isTrue();
+        assertThat(subject.isExcludedDirectory(root.resolve("de/generated"))).isTrue();
+        assertThat(subject.isExcludedDirectory(root.resolve("de"))).isFalse();
+    }
+
+    @Test
+    void testFilePatternDoesNotExcludeDirectory() throws Exception {
+        final SourceFileFilter subject = filter(Collections.emptyList(),
+                Arrays.asList("**/*.java"));
+
+        assertThat(subject.isExcludedDirectory(root.resolve("de"))).isFalse();
+    }
+
+    @Test
+    void testRootIsNeverExcluded() throws Exception {
+        final SourceFileFilter subject = filter(Collections.emptyList(),
+                Arrays.asList("**/**"));
+
+        assertThat(subject.isExcludedDirectory(root)).isFalse();
+    }
+}
@@ -5,6 +5,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystem;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -20,7 +23,6 @@ public class SourceTreeAnalyzerImplIT {
 
     private final AnalyzerSettings settings = AnalyzerSettings.builder()
             .withRootDirectories(root)
-            .withCommentLineBufferSize(3)
             .build();
 
     @Test
@@ -107,6 +109,37 @@ public class SourceTreeAnalyzerImplIT {
         assertThat(analyzeResult).isEqualTo(expected);
     }
 
+    @Test
+    void testFindBannedImportAfterLongLicenseHeader() throws Exception {
+        final String[] lines = new String[1002];
+        lines[0] = "/*";
+        for (int i = 1; i < 1000; ++i) {
+            lines[i] = " * license header";
+        }
+        lines[1000] = " */package de.skuzzle;";
+        lines[1001] = "import java.util.ArrayList;";
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines(lines);
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.ArrayList")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+        final AnalyzeResult analyzeResult = subject.analyze(settings, groups);
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(MatchedFile
+                        .forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(1002, "java.util.ArrayList", PackagePattern.parse("java.util.ArrayList")))
+                .build();
+
+        assertThat(analyzeResult).isEqualTo(expected);
+    }
+
     @Test
     void testLeadingBlockComment() throws Exception {
         final Path sourceFile = new SourceFileBuilder(fs)
@@ -199,6 +232,40 @@ public class SourceTreeAnalyzerImplIT {
         assertThat(analyzeResult).isEqualTo(expected);
     }
 
+    @Test
+    void testCharsetWhichRequiresDecoding() throws Exception {
+        final Path sourceFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .witchCharset(StandardCharsets.UTF_16)
+                .withLines("",
+                        "package de.skuzzle;",
+                        "/* comment",
+                        "*/",
+                        "import java.util.ArrayList;");
+
+        final AnalyzerSettings localSettings = AnalyzerSettings.builder()
+                .withRootDirectories(this.root)
+                .withSourceFileCharset(StandardCharsets.UTF_16)
+                .build();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("de.skuzzle.**")
+                .withBannedImports("java.util.ArrayList")
+                .build();
+        final BannedImportGroups groups = BannedImportGroups.builder().withGroup(group).build();
+        final AnalyzeResult analyzeResult = subject.analyze(localSettings, groups);
+
+        final AnalyzeResult expected = AnalyzeResult.builder()
+                .withMatches(MatchedFile
+                        .forSourceFile(sourceFile)
+                        .matchedBy(group)
+                        .withMatchAt(5, "java.util.ArrayList", PackagePattern.parse("java.util.ArrayList")))
+                .build();
+
+        assertThat(analyzeResult).isEqualTo(expected);
+    }
+
     @Test
     void testFindBannedImportInMultipleBasePackages() throws Exception {
         final Path sourceFile1 = new SourceFileBuilder(fs)
@@ -392,4 +459,356 @@ public class SourceTreeAnalyzerImplIT {
 
         assertThat(result.bannedImportsFound()).isFalse();
     }
+
+    @Test
+    void testParallelAnalysisYieldsSameResultAsSequential() throws Exception {
+        for (int i = 0; i < 20; ++i) {
+            new SourceFileBuilder(fs)
+                    .atPath("src/main/java/de/skuzzle" + i + "/Sample.java")
+                    .withLines(
+                            "package de.skuzzle" + i + ";",
+                            "import java.util.ArrayList;");
+        }
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+        final AnalyzerSettings parallelSettings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withParallelism(4)
+                .build();
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        final AnalyzeResult sequentialResult = subject.analyze(settings, groups);
+        final AnalyzeResult parallelResult = subject.analyze(parallelSettings, groups);
+
+        assertThat(parallelResult.getFileMatches()).hasSize(20);
+        assertThat(parallelResult).isEqualTo(sequentialResult);
+    }
+
+    @Test
+    void testAllReadStrategiesYieldSameResult() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines(
+                        "/* license */",
+                        "package de.skuzzle;",
+                        "import java.util.ArrayList;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        final AnalyzeResult expected = subject.analyze(settings, groups);
+        assertThat(expected.getFileMatches()).hasSize(1);
+
+        for (final ReadStrategy readStrategy : ReadStrategy.values()) {
+            final AnalyzerSettings strategySettings = AnalyzerSettings.builder()
+                    .withRootDirectories(root)
+                    .withReadStrategy(readStrategy)
+                    .withMappingThreshold(0)
+                    .build();
+            assertThat(subject.analyze(strategySettings, groups)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testIncrementalAnalysisYieldsSameResultAndDetectsChanges() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+        final AnalyzerSettings cachedSettings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withCacheDirectory(fs.getPath("/target/restrict-imports"))
+                .build();
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        final AnalyzeResult expected = subject.analyze(settings, groups);
+        assertThat(subject.analyze(cachedSettings, groups)).isEqualTo(expected);
+        assertThat(subject.analyze(cachedSettings, groups)).isEqualTo(expected);
+
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.List;");
+        assertThat(subject.analyze(cachedSettings, groups).bannedImportsFound()).isFalse();
+    }
+
+    @Test
+    void testFailFastStopsAtFirstMatch() throws Exception {
+        for (int i = 0; i < 20; ++i) {
+            new SourceFileBuilder(fs)
+                    .atPath("src/main/java/de/skuzzle" + i + "/Sample.java")
+                    .withLines(
+                            "package de.skuzzle" + i + ";",
+                            "import java.util.ArrayList;");
+        }
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        for (final int parallelism : new int[] { 1, 4 }) {
+            final AnalyzerSettings failFastSettings = AnalyzerSettings.builder()
+                    .withRootDirectories(root)
+                    .withParallelism(parallelism)
+                    .withFailFast(true)
+                    .build();
+
+            final AnalyzeResult result = subject.analyze(failFastSettings, groups);
+            assertThat(result.getFileMatches()).hasSize(1);
+            assertThat(result.getFileMatches().get(0).getMatchedImports()).hasSize(1);
+        }
+    }
+
+    @Test
+    void testFailFastWithoutMatch() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.List;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+        final AnalyzerSettings failFastSettings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withFailFast(true)
+                .build();
+
+        final AnalyzeResult result = SourceTreeAnalyzer.getInstance()
+                .analyze(failFastSettings, groups);
+        assertThat(result.bannedImportsFound()).isFalse();
+    }
+
+    @Test
+    void testSourceIncludesAndExcludes() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/generated/Generated.java")
+                .withLines("package de.skuzzle.generated;", "import java.util.ArrayList;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/legacy/Legacy.java")
+                .withLines("package de.skuzzle.legacy;", "import java.util.ArrayList;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final Path sourceRoot = fs.getPath("src/main/java").toAbsolutePath();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        for (final int parallelism : new int[] { 1, 4 }) {
+            final AnalyzerSettings filteredSettings = AnalyzerSettings.builder()
+                    .withRootDirectories(sourceRoot)
+                    .withParallelism(parallelism)
+                    .withSourceIncludes(Arrays.asList("de/**"))
+                    .withSourceExcludes(Arrays.asList("**/generated/**", "**/Legacy.java"))
+                    .build();
+
+            final AnalyzeResult result = subject.analyze(filteredSettings, groups);
+            assertThat(result.getFileMatches()).hasSize(1);
+            assertThat(result.getFileMatches().get(0).getSourceFile())
+                    .isEqualTo(sourceRoot.resolve("de/skuzzle/Sample.java"));
+        }
+    }
+
+    @Test
+    void testPackagePruningSkipsIrrelevantDirectories() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/acme/core/Core.java")
+                .withLines("package com.acme.core;", "import java.util.ArrayList;");
+        // Placed in a pruned directory, so its package can not be verified
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/acme/legacy/Misplaced.java")
+                .withLines("package com.acme.core;", "import java.util.ArrayList;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("com.acme.core.**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final Path sourceRoot = fs.getPath("src/main/java").toAbsolutePath();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        for (final int parallelism : new int[] { 1, 4 }) {
+            final AnalyzerSettings pruningSettings = AnalyzerSettings.builder()
+                    .withRootDirectories(sourceRoot)
+                    .withParallelism(parallelism)
+                    .withPackagePruning(true)
+                    .build();
+
+            final AnalyzeResult result = subject.analyze(pruningSettings, groups);
+            assertThat(result.getFileMatches()).hasSize(1);
+            assertThat(result.getFileMatches().get(0).getSourceFile())
+                    .isEqualTo(sourceRoot.resolve("com/acme/core/Core.java"));
+        }
+    }
+
+    @Test
+    void testPackagePruningAnalyzesSkippedDirectoriesOnPackageMismatch() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/acme/core/Core.java")
+                .withLines("package com.acme.core.impl;", "import java.util.List;");
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/com/acme/legacy/Misplaced.java")
+                .withLines("package com.acme.core;", "import java.util.ArrayList;");
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("com.acme.core.**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final Path sourceRoot = fs.getPath("src/main/java").toAbsolutePath();
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        for (final int parallelism : new int[] { 1, 4 }) {
+            final AnalyzerSettings pruningSettings = AnalyzerSettings.builder()
+                    .withRootDirectories(sourceRoot)
+                    .withParallelism(parallelism)
+                    .withPackagePruning(true)
+                    .build();
+
+            final AnalyzeResult result = subject.analyze(pruningSettings, groups);
+            assertThat(result.getFileMatches()).hasSize(1);
+            assertThat(result.getFileMatches().get(0).getSourceFile())
+                    .isEqualTo(sourceRoot.resolve("com/acme/legacy/Misplaced.java"));
+        }
+    }
+
+    @Test
+    void testLimitReportedViolations() throws Exception {
+        for (int i = 0; i < 20; ++i) {
+            new SourceFileBuilder(fs)
+                    .atPath("src/main/java/de/skuzzle" + i + "/Sample.java")
+                    .withLines(
+                            "package de.skuzzle" + i + ";",
+                            "import java.util.ArrayList;",
+                            "import java.util.LinkedList;");
+        }
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.*"))
+                .build();
+
+        final SourceTreeAnalyzer subject = SourceTreeAnalyzer.getInstance();
+        final AnalyzeResult sequentialResult = subject.analyze(AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withMaxReportedViolations(5)
+                .build(), groups);
+        final AnalyzeResult parallelResult = subject.analyze(AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withMaxReportedViolations(5)
+                .withParallelism(4)
+                .build(), groups);
+
+        assertThat(sequentialResult.getFileMatches()).hasSize(3);
+        assertThat(sequentialResult.getViolationCount()).isEqualTo(40);
+        assertThat(parallelResult).isEqualTo(sequentialResult);
+    }
+
+    @Test
+    void testListenerReceivesEventsPerRoot() throws Exception {
+        final Path mainFile = new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        final Path testFile = new SourceFileBuilder(fs)
+                .atPath("src/test/java/de/skuzzle/SampleTest.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        final Path mainRoot = fs.getPath("src/main/java").toAbsolutePath();
+        final Path testRoot = fs.getPath("src/test/java").toAbsolutePath();
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        for (final int parallelism : new int[] { 1, 4 }) {
+            final List<String> events = new ArrayList<>();
+            SourceTreeAnalyzer.getInstance().analyze(AnalyzerSettings.builder()
+                    .withRootDirectories(mainRoot, testRoot)
+                    .withParallelism(parallelism)
+                    .build(), groups, new MatchListener() {
+
+                        @Override
+                        public void rootStarted(Path root) {
+                            events.add("start " + root);
+                        }
+
+                        @Override
+                        public synchronized void fileMatched(MatchedFile matchedFile) {
+                            events.add("match " + matchedFile.getSourceFile());
+                        }
+
+                        @Override
+                        public void rootFinished(Path root) {
+                            events.add("finish " + root);
+                        }
+                    });
+
+            assertThat(events).containsExactly(
+                    "start " + mainRoot,
+                    "match " + mainFile,
+                    "finish " + mainRoot,
+                    "start " + testRoot,
+                    "match " + testFile,
+                    "finish " + testRoot);
+        }
+    }
+
+    @Test
+    void testListenerWithFailFastSkipsRemainingRoots() throws Exception {
+        new SourceFileBuilder(fs)
+                .atPath("src/main/java/de/skuzzle/Sample.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        new SourceFileBuilder(fs)
+                .atPath("src/test/java/de/skuzzle/SampleTest.java")
+                .withLines("package de.skuzzle;", "import java.util.ArrayList;");
+        final Path mainRoot = fs.getPath("src/main/java").toAbsolutePath();
+        final Path testRoot = fs.getPath("src/test/java").toAbsolutePath();
+
+        final BannedImportGroups groups = BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBasePackages("**")
+                        .withBannedImports("java.util.ArrayList"))
+                .build();
+
+        final List<Path> finishedRoots = new ArrayList<>();
+        SourceTreeAnalyzer.getInstance().analyze(AnalyzerSettings.builder()
+                .withRootDirectories(mainRoot, testRoot)
+                .withFailFast(true)
+                .build(), groups, new MatchListener() {
+
+                    @Override
+                    public void fileMatched(MatchedFile matchedFile) {
+                    }
+
+                    @Override
+                    public void rootFinished(Path root) {
+                        finishedRoots.add(root);
+                    }
+                });
+
+        assertThat(finishedRoots).containsExactly(mainRoot);
+    }
 }
@@ -0,0 +1,93 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+/**
+ * Analyzes a large generated source tree on the default file system and checks time and
+ * heap budgets. The test takes a while and is only run when the system property
+ * {@code restrictImports.loadTest} is set to {@code true}. The budgets can be adjusted
+ * using {@code restrictImports.loadTest.files}, {@code restrictImports.loadTest.maxSeconds}
+ * and {@code restrictImports.loadTest.maxRetainedHeapMb}.
+ */
+@EnabledIfSystemProperty(named = "restrictImports.loadTest", matches = "true")
+public class SourceTreeAnalyzerLoadTest {
+
+    private static final int FILES = Integer.getInteger("restrictImports.loadTest.files",
+            100_000);
+    private static final long MAX_SECONDS = Long.getLong(
+            "restrictImports.loadTest.maxSeconds", 60);
+    private static final long MAX_RETAINED_HEAP_MB = Long.getLong(
+            "restrictImports.loadTest.maxRetainedHeapMb", 64);
+
+    private static Path root;
+    private static int bannedImports;
+
+    private final BannedImportGroups groups = BannedImportGroups.builder()
+            .withGroup(BannedImportGroup.builder()
+                    .withBasePackages(SourceTreeGenerator.BASE_PACKAGE + ".**")
+                    .withBannedImports(SourceTreeGenerator.BANNED_IMPORT))
+            .build();
+
+    @BeforeAll
+    static void generateTree() throws Exception {
+        root = Files.createTempDirectory("restrict-imports-load-test");
+        bannedImports = new SourceTreeGenerator()
+                .withFiles(FILES)
+                .withPackages(500)
+                .withCrlfRatio(0.1)
+                .generate(root);
+    }
+
+    @AfterAll
+    static void deleteTree() throws Exception {
+        MoreFiles.deleteRecursively(root, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+
+    @Test
+    void testSequentialAnalysis() throws Exception {
+        analyzeWithinBudget(1);
+    }
+
+    @Test
+    void testParallelAnalysis() throws Exception {
+        analyzeWithinBudget(Runtime.getRuntime().availableProcessors());
+    }
+
+    private void analyzeWithinBudget(int parallelism) {
+        final AnalyzerSettings settings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withParallelism(parallelism)
+                .build();
+        final long heapBefore = usedHeapAfterGc();
+
+        final Stopwatch stopwatch = Stopwatch.createStarted();
+        final AnalyzeResult result = SourceTreeAnalyzer.getInstance().analyze(settings, groups);
+        stopwatch.stop();
+
+        final long retainedHeapMb = (usedHeapAfterGc() - heapBefore) / (1024 * 1024);
+        assertThat(result.getViolationCount()).isEqualTo(bannedImports);
+        assertThat(stopwatch.elapsed(TimeUnit.SECONDS)).isLessThanOrEqualTo(MAX_SECONDS);
+        assertThat(retainedHeapMb).isLessThanOrEqualTo(MAX_RETAINED_HEAP_MB);
+    }
+
+    private static long usedHeapAfterGc() {
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,72 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class SourceTreeFingerprintTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+    private final AnalyzerSettings settings = AnalyzerSettings.builder()
+            .withRootDirectories(root)
+            .withSourceExcludes(Collections.singletonList("**/generated/**"))
+            .build();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(root.resolve("de/skuzzle/generated"));
+        Files.write(root.resolve("de/skuzzle/Sample.java"), "import java.util.List;".getBytes());
+    }
+
+    @Test
+    void testUnchangedFiles() throws Exception {
+        assertThat(SourceTreeFingerprint.of(settings))
+                .isEqualTo(SourceTreeFingerprint.of(settings));
+    }
+
+    @Test
+    void testChangedFile() throws Exception {
+        final String before = SourceTreeFingerprint.of(settings);
+        Files.write(root.resolve("de/skuzzle/Sample.java"), "import java.util.Set;".getBytes());
+
+        assertThat(SourceTreeFingerprint.of(settings)).isNotEqualTo(before);
+    }
+
+    @Test
+    void testAddedFileWithUpperCaseSuffix() throws Exception {
+        final String before = SourceTreeFingerprint.of(settings);
+        Files.write(root.resolve("de/skuzzle/Other.JAVA"), "import java.util.Set;".getBytes());
+
+        assertThat(SourceTreeFingerprint.of(settings)).isNotEqualTo(before);
+    }
+
+    @Test
+    void testIgnoreExcludedAndNonSourceFiles() throws Exception {
+        final String before = SourceTreeFingerprint.of(settings);
+        Files.write(root.resolve("de/skuzzle/generated/Generated.java"),
+                "import java.util.Set;".getBytes());
+        Files.write(root.resolve("de/skuzzle/readme.txt"), "readme".getBytes());
+
+        assertThat(SourceTreeFingerprint.of(settings)).isEqualTo(before);
+    }
+
+    @Test
+    void testIgnoreMissingRoot() throws Exception {
+        final AnalyzerSettings missingRoot = AnalyzerSettings.builder()
+                .withRootDirectories(fs.getPath("/does/not/exist"))
+                .build();
+
+        assertThat(SourceTreeFingerprint.of(missingRoot))
+                .isEqualTo(SourceTreeFingerprint.of(missingRoot));
+    }
+}
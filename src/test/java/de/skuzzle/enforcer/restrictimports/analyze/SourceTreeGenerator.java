@@ -0,0 +1,170 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible source trees of arbitrary size for load tests and benchmarks.
+ * Every generated class lives in one of a fixed number of packages and imports classes of
+ * other generated packages. Every n-th file additionally imports {@value #BANNED_IMPORT},
+ * so the number of expected banned imports is known upfront.
+ * <p>
+ * All random decisions are derived from the seed, so the same configuration always
+ * produces the same tree.
+ *
+ * @author Simon Taddiken
+ */
+class SourceTreeGenerator {
+
+    static final String BASE_PACKAGE = "de.skuzzle.generated";
+    static final String BANNED_IMPORT = "java.util.Vector";
+
+    private int files = 1000;
+    private int packages = 50;
+    private int imports = 20;
+    private int bannedImportEvery = 100;
+    private int licenseHeaderLines = 15;
+    private int bodyLines = 100;
+    private int blockCommentEvery = 10;
+    private double crlfRatio = 0.0;
+    private Charset charset = StandardCharsets.UTF_8;
+    private long seed = 42;
+
+    public SourceTreeGenerator withFiles(int files) {
+        checkArgument(files >= 0);
+        this.files = files;
+        return this;
+    }
+
+    public SourceTreeGenerator withPackages(int packages) {
+        checkArgument(packages > 0);
+        this.packages = packages;
+        return this;
+    }
+
+    public SourceTreeGenerator withImports(int imports) {
+        checkArgument(imports >= 0);
+        this.imports = imports;
+        return this;
+    }
+
+    /**
+     * Every n-th file imports {@value #BANNED_IMPORT}. 0 disables banned imports.
+     */
+    public SourceTreeGenerator withBannedImportEvery(int bannedImportEvery) {
+        checkArgument(bannedImportEvery >= 0);
+        this.bannedImportEvery = bannedImportEvery;
+        return this;
+    }
+
+    public SourceTreeGenerator withLicenseHeaderLines(int licenseHeaderLines) {
+        checkArgument(licenseHeaderLines >= 0);
+        this.licenseHeaderLines = licenseHeaderLines;
+        return this;
+    }
+
+    public SourceTreeGenerator withBodyLines(int bodyLines) {
+        checkArgument(bodyLines >= 0);
+        this.bodyLines = bodyLines;
+        return this;
+    }
+
+    /**
+     * Every n-th line of the class body is preceded by a javadoc block comment. 0 disables
+     * block comments within the body.
+     */
+    public SourceTreeGenerator withBlockCommentEvery(int blockCommentEvery) {
+        checkArgument(blockCommentEvery >= 0);
+        this.blockCommentEvery = blockCommentEvery;
+        return this;
+    }
+
+    /**
+     * The probability with which a file uses CRLF instead of LF line separators.
+     */
+    public SourceTreeGenerator withCrlfRatio(double crlfRatio) {
+        checkArgument(crlfRatio >= 0.0 && crlfRatio <= 1.0);
+        this.crlfRatio = crlfRatio;
+        return this;
+    }
+
+    public SourceTreeGenerator withCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    public SourceTreeGenerator withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Writes the configured tree into the given root directory.
+     *
+     * @param root The source root to write to.
+     * @return The number of generated banned imports.
+     * @throws IOException If writing a file fails.
+     */
+    public int generate(Path root) throws IOException {
+        final Random random = new Random(seed);
+        int bannedImports = 0;
+        for (int i = 0; i < files; ++i) {
+            final int packageIndex = random.nextInt(packages);
+            final String packageName = BASE_PACKAGE + ".package" + packageIndex;
+            final boolean banned = bannedImportEvery > 0 && i % bannedImportEvery == 0;
+            if (banned) {
+                ++bannedImports;
+            }
+
+            final Path file = root.resolve(packageName.replace('.', '/'))
+                    .resolve("Class" + i + ".java");
+            new SourceFileBuilder(root.getFileSystem())
+                    .atPath(file)
+                    .witchCharset(charset)
+                    .withLineSeparator(random.nextDouble() < crlfRatio ? "\r\n" : "\n")
+                    .withLines(sourceFile(random, packageName, i, banned));
+        }
+        return bannedImports;
+    }
+
+    private List<String> sourceFile(Random random, String packageName, int index,
+            boolean banned) {
+        final List<String> lines = new ArrayList<>(licenseHeaderLines + imports + bodyLines
+                + 10);
+        if (licenseHeaderLines > 0) {
+            lines.add("/*");
+            for (int i = 0; i < licenseHeaderLines; ++i) {
+                lines.add(" * Licensed under the terms of the generated license, line " + i);
+            }
+            lines.add(" */");
+        }
+        lines.add("package " + packageName + ";");
+        lines.add("");
+        for (int i = 0; i < imports; ++i) {
+            lines.add("import " + BASE_PACKAGE + ".package" + random.nextInt(packages)
+                    + ".Class" + random.nextInt(Math.max(files, 1)) + ";");
+        }
+        if (banned) {
+            lines.add("import " + BANNED_IMPORT + ";");
+        }
+        lines.add("");
+        lines.add("public class Class" + index + " {");
+        for (int i = 0; i < bodyLines; ++i) {
+            if (blockCommentEvery > 0 && i % blockCommentEvery == 0) {
+                lines.add("    /**");
+                lines.add("     * Javadoc of field" + i + ".");
+                lines.add("     */");
+            }
+            lines.add("    private int field" + i + "; // line comment");
+        }
+        lines.add("}");
+        return lines;
+    }
+}
@@ -0,0 +1,92 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+public class SourceTreeGeneratorTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+
+    private final BannedImportGroups groups = BannedImportGroups.builder()
+            .withGroup(BannedImportGroup.builder()
+                    .withBasePackages(SourceTreeGenerator.BASE_PACKAGE + ".**")
+                    .withBannedImports(SourceTreeGenerator.BANNED_IMPORT))
+            .build();
+
+    private List<Path> listFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void testAnalyzerFindsGeneratedBannedImports() throws Exception {
+        final int bannedImports = new SourceTreeGenerator()
+                .withFiles(200)
+                .withPackages(7)
+                .withBannedImportEvery(9)
+                .withCrlfRatio(0.5)
+                .withCharset(StandardCharsets.ISO_8859_1)
+                .generate(root);
+
+        final AnalyzeResult result = SourceTreeAnalyzer.getInstance().analyze(
+                AnalyzerSettings.builder()
+                        .withRootDirectories(root)
+                        .withSourceFileCharset(StandardCharsets.ISO_8859_1)
+                        .build(),
+                groups);
+
+        assertThat(listFiles(root)).hasSize(200);
+        assertThat(bannedImports).isEqualTo(23);
+        assertThat(result.getViolationCount()).isEqualTo(bannedImports);
+    }
+
+    @Test
+    void testSameSeedGeneratesSameTree() throws Exception {
+        final Path otherRoot = fs.getPath("/other");
+        new SourceTreeGenerator().withFiles(20).withCrlfRatio(0.5).generate(root);
+        new SourceTreeGenerator().withFiles(20).withCrlfRatio(0.5).generate(otherRoot);
+
+        final List<Path> files = listFiles(root);
+        final List<Path> otherFiles = listFiles(otherRoot);
+        assertThat(files).hasSameSizeAs(otherFiles);
+        for (int i = 0; i < files.size(); ++i) {
+            assertThat(root.relativize(files.get(i)))
+                    .isEqualTo(otherRoot.relativize(otherFiles.get(i)));
+            assertThat(Files.readAllBytes(files.get(i)))
+                    .isEqualTo(Files.readAllBytes(otherFiles.get(i)));
+        }
+    }
+
+    @Test
+    void testMixLineSeparators() throws Exception {
+        new SourceTreeGenerator().withFiles(50).withCrlfRatio(0.5).generate(root);
+
+        final long crlfFiles = listFiles(root).stream()
+                .filter(file -> new String(readAllBytes(file), StandardCharsets.UTF_8)
+                        .contains("\r\n"))
+                .count();
+        assertThat(crlfFiles).isBetween(1L, 49L);
+    }
+
+    private static byte[] readAllBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (final java.io.IOException e) {
+            throw new RuntimeIOException("Failed to read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package de.skuzzle.enforcer.restrictimports.analyze;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+public class WorkerPoolsTest {
+
+    @Test
+    void testSharePoolForSameParallelism() throws Exception {
+        final ForkJoinPool first = WorkerPools.forParallelism(3);
+        final ForkJoinPool second = WorkerPools.forParallelism(3);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getParallelism()).isEqualTo(3);
+    }
+
+    @Test
+    void testDifferentPoolForDifferentParallelism() throws Exception {
+        assertThat(WorkerPools.forParallelism(2)).isNotSameAs(WorkerPools.forParallelism(5));
+    }
+
+    @Test
+    void testWorkersAreDaemonThreads() throws Exception {
+        final boolean daemon = WorkerPools.forParallelism(2)
+                .submit(() -> Thread.currentThread().isDaemon())
+                .get();
+
+        assertThat(daemon).isTrue();
+    }
+}
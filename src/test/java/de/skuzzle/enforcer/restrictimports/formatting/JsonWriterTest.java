@@ -0,0 +1,48 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonWriterTest {
+
+    private final StringBuilder target = new StringBuilder();
+    private final JsonWriter subject = new JsonWriter(target);
+
+    @Test
+    void testNestedStructures() throws Exception {
+        subject.beginObject()
+                .name("a").value(1)
+                .name("b").beginArray().value(true).value("x").beginObject().endObject()
+                .endArray()
+                .name("c").beginArray().endArray()
+                .name("d").value((String) null)
+                .endObject();
+
+        assertThat(target.toString())
+                .isEqualTo("{\"a\":1,\"b\":[true,\"x\",{}],\"c\":[],\"d\":null}");
+    }
+
+    @Test
+    void testEscapeStrings() throws Exception {
+        subject.value("\"quoted\" back\\slash\ttab\nnew line\u0001");
+
+        assertThat(target.toString())
+                .isEqualTo("\"\\\"quoted\\\" back\\\\slash\\ttab\\nnew line\\u0001\"");
+    }
+
+    @Test
+    void testNameOutsideOfObject() throws Exception {
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> subject.name("a"));
+    }
+
+    @Test
+    void testUnbalancedEnd() throws Exception {
+        subject.beginArray().endArray();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> subject.endArray());
+    }
+}
@@ -3,8 +3,10 @@ package de.skuzzle.enforcer.restrictimports.formatting;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
+import java.io.StringWriter;
 import java.net.URL;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collection;
 
 import org.junit.jupiter.api.Test;
@@ -48,4 +50,92 @@ public class MatchFormatterImplTest {
                 "\tin file: SampleJavaFile.java\n" +
                 "\t\tjava.util.ArrayList (Line: 3, Matched by: java.util.*)\n");
     }
+
+    @Test
+    public void testFormatEachGroupWithItsOwnFiles() throws Exception {
+        final BannedImportGroup utilGroup = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.*")
+                .withReason("No util")
+                .build();
+        final BannedImportGroup ioGroup = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.io.*")
+                .withReason("No io")
+                .build();
+
+        final Path root = Paths.get("src", "main", "java");
+        final AnalyzeResult analyzeResult = AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(root.resolve("A.java"))
+                        .matchedBy(utilGroup)
+                        .withMatchAt(3, "java.util.List", PackagePattern.parse("java.util.*")),
+                        MatchedFile.forSourceFile(root.resolve("B.java"))
+                                .matchedBy(ioGroup)
+                                .withMatchAt(4, "java.io.File",
+                                        PackagePattern.parse("java.io.*")),
+                        MatchedFile.forSourceFile(root.resolve("C.java"))
+                                .matchedBy(utilGroup)
+                                .withMatchAt(5, "java.util.Set",
+                                        PackagePattern.parse("java.util.*")))
+                .build();
+
+        final String formatted = subject.formatMatches(ImmutableList.of(root), analyzeResult);
+
+        assertThat(formatted).isEqualTo("\nBanned imports detected:\n" +
+                "Reason: No util\n" +
+                "\tin file: A.java\n" +
+                "\t\tjava.util.List (Line: 3, Matched by: java.util.*)\n" +
+                "\tin file: C.java\n" +
+                "\t\tjava.util.Set (Line: 5, Matched by: java.util.*)\n" +
+                "Reason: No io\n" +
+                "\tin file: B.java\n" +
+                "\t\tjava.io.File (Line: 4, Matched by: java.io.*)\n");
+    }
+
+    @Test
+    public void testRelativizeAgainstMostSpecificRoot() throws Exception {
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.*")
+                .build();
+
+        final Path outerRoot = Paths.get("src");
+        final Path innerRoot = outerRoot.resolve("generated");
+        final AnalyzeResult analyzeResult = AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(innerRoot.resolve("de/A.java"))
+                        .matchedBy(group)
+                        .withMatchAt(3, "java.util.List", PackagePattern.parse("java.util.*")),
+                        MatchedFile.forSourceFile(outerRoot.resolve("de/B.java"))
+                                .matchedBy(group)
+                                .withMatchAt(3, "java.util.List",
+                                        PackagePattern.parse("java.util.*")))
+                .build();
+
+        final String formatted = subject.formatMatches(
+                ImmutableList.of(outerRoot, innerRoot), analyzeResult);
+
+        assertThat(formatted)
+                .contains("\tin file: " + Paths.get("de", "A.java") + "\n")
+                .contains("\tin file: " + Paths.get("de", "B.java") + "\n");
+    }
+
+    @Test
+    public void testWriteToAppendable() throws Exception {
+        final BannedImportGroup group = BannedImportGroup.builder()
+                .withBasePackages("**")
+                .withBannedImports("java.util.*")
+                .build();
+        final Path root = Paths.get("src");
+        final AnalyzeResult analyzeResult = AnalyzeResult.builder()
+                .withMatches(MatchedFile.forSourceFile(root.resolve("A.java"))
+                        .matchedBy(group)
+                        .withMatchAt(3, "java.util.List", PackagePattern.parse("java.util.*")))
+                .build();
+        final Collection<Path> roots = ImmutableList.of(root);
+
+        final StringWriter writer = new StringWriter();
+        subject.formatMatches(roots, analyzeResult, writer);
+
+        assertThat(writer.toString()).isEqualTo(subject.formatMatches(roots, analyzeResult));
+    }
 }
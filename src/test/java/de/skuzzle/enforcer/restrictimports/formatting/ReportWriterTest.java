@@ -0,0 +1,105 @@
+package de.skuzzle.enforcer.restrictimports.formatting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.MatchedFile;
+import de.skuzzle.enforcer.restrictimports.analyze.PackagePattern;
+
+public class ReportWriterTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+    private final Collection<Path> roots = ImmutableList.of(root);
+
+    private final BannedImportGroup group = BannedImportGroup.builder()
+            .withBasePackages("**")
+            .withBannedImports("java.util.*")
+            .withReason("Use \"guava\"")
+            .build();
+
+    private final AnalyzeResult analyzeResult = AnalyzeResult.builder()
+            .withMatches(MatchedFile.forSourceFile(root.resolve("de/Sample.java"))
+                    .matchedBy(group)
+                    .withMatchAt(3, "java.util.List", PackagePattern.parse("java.util.*")))
+            .withOmittedViolations(group, 2)
+            .build();
+
+    @Test
+    void testParseFormat() throws Exception {
+        assertThat(ReportFormat.fromString(" Sarif ")).isEqualTo(ReportFormat.SARIF);
+        assertThat(ReportFormat.fromString("json")).isEqualTo(ReportFormat.JSON);
+    }
+
+    @Test
+    void testParseUnknownFormat() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ReportFormat.fromString("xml"));
+    }
+
+    @Test
+    void testWriteJsonReport() throws Exception {
+        final StringBuilder target = new StringBuilder();
+        ReportWriter.forFormat(ReportFormat.JSON).writeReport(roots, analyzeResult, target);
+
+        assertThat(target.toString()).isEqualTo("{"
+                + "\"bannedImportsFound\":true,"
+                + "\"truncated\":true,"
+                + "\"violationCount\":3,"
+                + "\"groups\":[{"
+                + "\"reason\":\"Use \\\"guava\\\"\","
+                + "\"bannedImports\":[\"java.util.*\"],"
+                + "\"violationCount\":3}],"
+                + "\"files\":[{"
+                + "\"path\":\"de/Sample.java\","
+                + "\"absolutePath\":\"/src/main/java/de/Sample.java\","
+                + "\"reason\":\"Use \\\"guava\\\"\","
+                + "\"matches\":[{"
+                + "\"line\":3,"
+                + "\"import\":\"java.util.List\","
+                + "\"matchedBy\":\"java.util.*\"}]}]}");
+    }
+
+    @Test
+    void testWriteEmptyJsonReport() throws Exception {
+        final StringBuilder target = new StringBuilder();
+        ReportWriter.forFormat(ReportFormat.JSON).writeReport(roots,
+                AnalyzeResult.builder().build(), target);
+
+        assertThat(target.toString()).isEqualTo("{\"bannedImportsFound\":false,"
+                + "\"truncated\":false,\"violationCount\":0,\"groups\":[],\"files\":[]}");
+    }
+
+    @Test
+    void testWriteSarifReport() throws Exception {
+        final StringBuilder target = new StringBuilder();
+        ReportWriter.forFormat(ReportFormat.SARIF).writeReport(roots, analyzeResult, target);
+
+        final String uri = root.resolve("de/Sample.java").toUri().toString();
+        assertThat(target.toString())
+                .startsWith("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                        + "\"version\":\"2.1.0\",\"runs\":[{\"tool\":{\"driver\":{"
+                        + "\"name\":\"restrict-imports-enforcer-rule\",")
+                .contains("\"results\":[{"
+                        + "\"ruleId\":\"banned-import\","
+                        + "\"level\":\"error\","
+                        + "\"message\":{\"text\":\"Banned import java.util.List "
+                        + "(matched by java.util.*): Use \\\"guava\\\"\"},"
+                        + "\"locations\":[{\"physicalLocation\":{"
+                        + "\"artifactLocation\":{\"uri\":\"" + uri + "\"},"
+                        + "\"region\":{\"startLine\":3}}}]}]")
+                .endsWith("\"properties\":{\"truncated\":true,\"violationCount\":3}}]}");
+    }
+}
@@ -0,0 +1,121 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzeResult;
+import de.skuzzle.enforcer.restrictimports.analyze.AnalyzerSettings;
+
+public class AnalyzeResultCacheTest {
+
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path root = fs.getPath("/src/main/java");
+    private final AnalyzerSettings settings = AnalyzerSettings.builder()
+            .withRootDirectories(root)
+            .withSourceFileCharset(StandardCharsets.UTF_8)
+            .build();
+
+    private final AtomicInteger analyses = new AtomicInteger();
+    private final Supplier<AnalyzeResult> analysis = () -> {
+        analyses.incrementAndGet();
+        return AnalyzeResult.builder().build();
+    };
+
+    private final AnalyzeResultCache subject = new AnalyzeResultCache();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(root);
+        Files.write(root.resolve("Sample.java"), "import java.util.List;".getBytes());
+    }
+
+    @Test
+    void testReuseResultForUnchangedFiles() throws Exception {
+        final AnalyzeResult first = subject.getOrAnalyze("id", settings, analysis);
+        final AnalyzeResult second = subject.getOrAnalyze("id", settings, analysis);
+
+        assertThat(second).isSameAs(first);
+        assertThat(analyses.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testAnalyzeAgainForDifferentConfiguration() throws Exception {
+        subject.getOrAnalyze("id", settings, analysis);
+        subject.getOrAnalyze("other-id", settings, analysis);
+
+        assertThat(analyses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testAnalyzeAgainForDifferentRoots() throws Exception {
+        final Path otherRoot = fs.getPath("/src/test/java");
+        Files.createDirectories(otherRoot);
+        final AnalyzerSettings otherSettings = AnalyzerSettings.builder()
+                .withRootDirectories(otherRoot)
+                .withSourceFileCharset(StandardCharsets.UTF_8)
+                .build();
+
+        subject.getOrAnalyze("id", settings, analysis);
+        subject.getOrAnalyze("id", otherSettings, analysis);
+
+        assertThat(analyses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testAnalyzeAgainForChangedFile() throws Exception {
+        subject.getOrAnalyze("id", settings, analysis);
+        Files.write(root.resolve("Sample.java"), "import java.util.ArrayList;".getBytes());
+        subject.getOrAnalyze("id", settings, analysis);
+
+        assertThat(analyses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testAnalyzeAgainForAddedFile() throws Exception {
+        subject.getOrAnalyze("id", settings, analysis);
+        Files.write(root.resolve("Other.java"), "import java.util.List;".getBytes());
+        subject.getOrAnalyze("id", settings, analysis);
+
+        assertThat(analyses.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testReuseResultIfOnlyExcludedFileChanged() throws Exception {
+        final AnalyzerSettings excludingSettings = AnalyzerSettings.builder()
+                .withRootDirectories(root)
+                .withSourceFileCharset(StandardCharsets.UTF_8)
+                .withSourceExcludes(Collections.singletonList("Excluded.java"))
+                .build();
+
+        subject.getOrAnalyze("id", excludingSettings, analysis);
+        Files.write(root.resolve("Excluded.java"), "import java.util.List;".getBytes());
+        subject.getOrAnalyze("id", excludingSettings, analysis);
+
+        assertThat(analyses.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testIgnoreMissingRoot() throws Exception {
+        final AnalyzerSettings missingRoot = AnalyzerSettings.builder()
+                .withRootDirectories(fs.getPath("/does/not/exist"))
+                .build();
+
+        subject.getOrAnalyze("id", missingRoot, analysis);
+        subject.getOrAnalyze("id", missingRoot, analysis);
+
+        assertThat(analyses.get()).isEqualTo(1);
+    }
+}
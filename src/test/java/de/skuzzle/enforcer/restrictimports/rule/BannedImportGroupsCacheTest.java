@@ -0,0 +1,78 @@
+package de.skuzzle.enforcer.restrictimports.rule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroup;
+import de.skuzzle.enforcer.restrictimports.analyze.BannedImportGroups;
+
+public class BannedImportGroupsCacheTest {
+
+    private final AtomicInteger compilations = new AtomicInteger();
+    private final Supplier<BannedImportGroups> compiler = () -> {
+        compilations.incrementAndGet();
+        return BannedImportGroups.builder()
+                .withGroup(BannedImportGroup.builder()
+                        .withBannedImports("java.util.*"))
+                .build();
+    };
+
+    private final BannedImportGroupsCache subject = new BannedImportGroupsCache();
+
+    @Test
+    void testReuseGroupsForSameConfiguration() throws Exception {
+        final BannedImportGroups first = subject.getOrCompile("key", compiler);
+        final BannedImportGroups second = subject.getOrCompile("key", compiler);
+
+        assertThat(second).isSameAs(first);
+        assertThat(compilations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testCompileGroupsForDifferentConfiguration() throws Exception {
+        subject.getOrCompile("key", compiler);
+        subject.getOrCompile("other-key", compiler);
+
+        assertThat(compilations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testDoNotCacheInvalidConfiguration() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.getOrCompile("key", () -> {
+                    throw new IllegalArgumentException("invalid");
+                }));
+        subject.getOrCompile("key", compiler);
+
+        assertThat(compilations.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testConfigurationKeyOfEqualDefinitions() throws Exception {
+        final BannedImportGroupDefinition first = new BannedImportGroupDefinition();
+        first.setBasePackages(Arrays.asList("de.skuzzle.**"));
+        first.setBannedImport("java.util.*");
+        final BannedImportGroupDefinition second = new BannedImportGroupDefinition();
+        second.setBasePackage("de.skuzzle.**");
+        second.setBannedImports(Arrays.asList("java.util.*"));
+
+        assertThat(first.getConfigurationKey()).isEqualTo(second.getConfigurationKey());
+    }
+
+    @Test
+    void testConfigurationKeyOfDifferentDefinitions() throws Exception {
+        final BannedImportGroupDefinition first = new BannedImportGroupDefinition();
+        first.setBannedImport("java.util.*");
+        final BannedImportGroupDefinition second = new BannedImportGroupDefinition();
+        second.setBannedImport("java.util.*");
+        second.setReason("reason");
+
+        assertThat(first.getConfigurationKey()).isNotEqualTo(second.getConfigurationKey());
+    }
+}
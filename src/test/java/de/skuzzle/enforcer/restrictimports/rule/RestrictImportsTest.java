@@ -1,11 +1,14 @@
 package de.skuzzle.enforcer.restrictimports.rule;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -18,6 +21,9 @@ import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
 public class RestrictImportsTest {
 
     private final EnforcerRuleHelper helper = mock(EnforcerRuleHelper.class);
@@ -180,8 +186,166 @@ public class RestrictImportsTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     void testConsistentConfigurationIllegalBufferSize() throws Exception {
         assertThatExceptionOfType(IllegalArgumentException.class)
                 .isThrownBy(() -> subject.setCommentLineBufferSize(0));
     }
+
+    @Test
+    void testConsistentConfigurationIllegalParallelism() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.setParallelism(0));
+    }
+
+    @Test
+    void testRestrictFailureParallel() throws Exception {
+        this.subject.setParallelism(4);
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> {
+                    this.subject.execute(this.helper);
+                });
+    }
+
+    @Test
+    void testConsistentConfigurationIllegalReadStrategy() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.setReadStrategy("random-access"));
+    }
+
+    @Test
+    void testConsistentConfigurationIllegalMappingThreshold() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.setMappingThreshold(-1));
+    }
+
+    @Test
+    void testRestrictFailureMappedReadStrategy() throws Exception {
+        this.subject.setReadStrategy("mapped");
+        this.subject.setMappingThreshold(0);
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> {
+                    this.subject.execute(this.helper);
+                });
+    }
+
+    @Test
+    void testCacheIdIsStableForSameConfiguration() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        final RestrictImports other = new RestrictImports();
+        other.setBannedImports(Collections.singletonList("java.util.**"));
+        other.setParallelism(4);
+
+        assertThat(this.subject.getCacheId()).isEqualTo(other.getCacheId());
+    }
+
+    @Test
+    void testCacheIdDiffersForDifferentConfiguration() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        final RestrictImports other = new RestrictImports();
+        other.setBannedImports(Collections.singletonList("java.util.**"));
+        other.setIncludeTestCode(true);
+
+        assertThat(this.subject.getCacheId()).isNotEqualTo(other.getCacheId());
+    }
+
+    @Test
+    void testRepeatedFailure() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper));
+    }
+
+    @Test
+    void testFailFastFailure() throws Exception {
+        this.subject.setFailFast(true);
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper))
+                .withMessageContaining("failFast");
+    }
+
+    @Test
+    void testCacheIdDiffersForFailFast() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        final RestrictImports other = new RestrictImports();
+        other.setBannedImports(Collections.singletonList("java.util.**"));
+        other.setFailFast(true);
+
+        assertThat(this.subject.getCacheId()).isNotEqualTo(other.getCacheId());
+    }
+
+    @Test
+    void testConsistentConfigurationIllegalMaxReportedViolations() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.setMaxReportedViolations(-1));
+    }
+
+    @Test
+    void testReportTotalsWhenLimitingViolations() throws Exception {
+        this.subject.setMaxReportedViolations(0);
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        assertThatExceptionOfType(EnforcerRuleException.class)
+                .isThrownBy(() -> this.subject.execute(this.helper))
+                .withMessageContaining("Reported 0 of 1 banned imports");
+    }
+
+    @Test
+    void testCacheIdDiffersForMaxReportedViolations() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        final RestrictImports other = new RestrictImports();
+        other.setBannedImports(Collections.singletonList("java.util.**"));
+        other.setMaxReportedViolations(10);
+
+        assertThat(this.subject.getCacheId()).isNotEqualTo(other.getCacheId());
+    }
+
+    @Test
+    void testCacheIdDiffersForSourceExcludes() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        final RestrictImports other = new RestrictImports();
+        other.setBannedImports(Collections.singletonList("java.util.**"));
+        other.setSourceExcludes(Collections.singletonList("**/generated/**"));
+
+        assertThat(this.subject.getCacheId()).isNotEqualTo(other.getCacheId());
+    }
+
+    @Test
+    void testCacheIdDiffersForPackagePruning() throws Exception {
+        this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+        final RestrictImports other = new RestrictImports();
+        other.setBannedImports(Collections.singletonList("java.util.**"));
+        other.setPackagePruning(true);
+
+        assertThat(this.subject.getCacheId()).isNotEqualTo(other.getCacheId());
+    }
+
+    @Test
+    void testWriteReport() throws Exception {
+        final Path tempDir = Files.createTempDirectory("restrict-imports");
+        try {
+            final Path reportFile = tempDir.resolve("reports/imports.json");
+            this.subject.setReportFormat("json");
+            this.subject.setReportFile(reportFile.toString());
+            this.subject.setBannedImports(Collections.singletonList("java.util.**"));
+
+            assertThatExceptionOfType(EnforcerRuleException.class)
+                    .isThrownBy(() -> this.subject.execute(this.helper));
+            assertThat(new String(Files.readAllBytes(reportFile), StandardCharsets.UTF_8))
+                    .startsWith("{\"bannedImportsFound\":true,")
+                    .contains("\"path\":\"SampleJavaFile.java\"");
+        } finally {
+            MoreFiles.deleteRecursively(tempDir, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+    }
+
+    @Test
+    void testConsistentConfigurationIllegalReportFormat() throws Exception {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> subject.setReportFormat("xml"));
+    }
 }